@@ -0,0 +1,90 @@
+package com.prime.prime_app.config;
+
+import com.prime.prime_app.entities.StatsBackfillMarker;
+import com.prime.prime_app.repository.StatsBackfillMarkerRepository;
+import com.prime.prime_app.service.AgentDailyStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Seeds the agent_daily_stats rollup for days that predate it, so period reports
+ * read complete numbers for any range.
+ * <p>
+ * Recent days are checked on every start. The rest of the history is backfilled once,
+ * newest first, in chunks of {@code app.stats.backfill-chunk-days}, each in its own
+ * transaction. Progress is kept in the {@code stats_backfill_marker} table, so an
+ * interrupted run resumes where it stopped and a finished one is never repeated.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AgentDailyStatsBackfill {
+    private static final String MARKER = "agent_daily_stats";
+
+    private final AgentDailyStatsService agentDailyStatsService;
+    private final StatsBackfillMarkerRepository markerRepository;
+
+    @Value("${app.stats.backfill-days:35}")
+    private int backfillDays;
+
+    @Value("${app.stats.backfill-chunk-days:31}")
+    private int chunkDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillStats() {
+        LocalDate today = LocalDate.now();
+        if (backfillDays > 0) {
+            try {
+                int created = agentDailyStatsService.backfill(today.minusDays(backfillDays), today);
+                log.info("Agent daily stats backfill created {} rows for the last {} days", created, backfillDays);
+            } catch (Exception e) {
+                log.error("Agent daily stats backfill failed: {}", e.getMessage(), e);
+            }
+        }
+
+        try {
+            backfillHistory(today);
+        } catch (Exception e) {
+            log.error("Agent daily stats history backfill stopped, it resumes on the next start: {}", e.getMessage(), e);
+        }
+    }
+
+    private void backfillHistory(LocalDate today) {
+        Optional<StatsBackfillMarker> marker = markerRepository.findById(MARKER);
+        if (marker.isPresent() && marker.get().isCompleted()) {
+            return;
+        }
+
+        LocalDate earliest = agentDailyStatsService.findEarliestActivityDate();
+        // Everything from coveredFrom onwards is backfilled
+        LocalDate coveredFrom = marker.map(StatsBackfillMarker::getCoveredFrom).orElse(today.plusDays(1));
+        int total = 0;
+        while (earliest != null && coveredFrom.isAfter(earliest)) {
+            LocalDate end = coveredFrom.minusDays(1);
+            LocalDate start = end.minusDays(Math.max(chunkDays, 1) - 1L);
+            if (start.isBefore(earliest)) {
+                start = earliest;
+            }
+            total += agentDailyStatsService.backfill(start, end);
+            coveredFrom = start;
+            saveMarker(coveredFrom, false);
+        }
+        saveMarker(earliest != null ? earliest : today, true);
+        log.info("Agent daily stats history backfill complete: {} rows created back to {}", total, earliest);
+    }
+
+    private void saveMarker(LocalDate coveredFrom, boolean completed) {
+        markerRepository.save(StatsBackfillMarker.builder()
+                .name(MARKER)
+                .coveredFrom(coveredFrom)
+                .completed(completed)
+                .build());
+    }
+}
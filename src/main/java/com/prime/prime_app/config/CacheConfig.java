@@ -57,6 +57,13 @@ public class CacheConfig {
         cacheConfigurations.put("attendanceCache", RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1)));
 
+        // Manager dashboard snapshots; evicted on check-ins, client entries and team changes,
+        // the TTL only bounds how long an entry can outlive a missed eviction
+        cacheConfigurations.put("dashboardCache", RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(10))
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer())));
+
         // Rate limiting cache with 1 minute TTL
         cacheConfigurations.put("rateLimitCache", RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(1)));
@@ -77,6 +84,7 @@ public class CacheConfig {
             "clientCache", 
             "performanceCache", 
             "attendanceCache", 
+            "dashboardCache",
             "rateLimitCache"
         ));
         return cacheManager;
@@ -38,6 +38,7 @@ public class RedisConfig {
                     RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(24)))
                 .withCacheConfiguration("clientCache", 
                     RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(12)))
+                .withCacheConfiguration("dashboardCache", config.entryTtl(Duration.ofMinutes(10)))
                 .build();
     }
 
@@ -4,6 +4,7 @@ import com.prime.prime_app.dto.admin.AgentListResponse;
 import com.prime.prime_app.dto.admin.ManagerListResponse;
 import com.prime.prime_app.dto.admin.AddManagerRequest;
 import com.prime.prime_app.dto.admin.ManagerResponse;
+import com.prime.prime_app.dto.client.ClientImportResponse;
 import com.prime.prime_app.dto.common.MessageResponse;
 import com.prime.prime_app.dto.notification.NotificationDto;
 import com.prime.prime_app.dto.notification.NotificationListResponse;
@@ -12,20 +13,29 @@ import com.prime.prime_app.entities.User;
 import com.prime.prime_app.entities.Role;
 import com.prime.prime_app.repository.UserRepository;
 import com.prime.prime_app.repository.RoleRepository;
+import com.prime.prime_app.enums.ExportFormat;
+import com.prime.prime_app.service.AdminExportService;
 import com.prime.prime_app.service.AdminService;
 import com.prime.prime_app.service.AuthService;
+import com.prime.prime_app.service.ClientImportService;
 import com.prime.prime_app.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -43,6 +53,8 @@ public class AdminApiController {
 
     private final AuthService authService;
     private final AdminService adminService;
+    private final AdminExportService adminExportService;
+    private final ClientImportService clientImportService;
     private final NotificationService notificationService;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
@@ -136,6 +148,46 @@ public class AdminApiController {
         }
     }
     
+    @Operation(
+        summary = "Export clients for all managers",
+        description = "Export every manager's clients for the date range as a ZIP with one PDF, Excel, CSV or NDJSON file per manager"
+    )
+    @GetMapping("/reports/export")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllManagers(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "pdf") String format) {
+        LocalDateTime start = LocalDate.parse(startDate).atStartOfDay();
+        LocalDateTime end = LocalDate.parse(endDate).atTime(23, 59, 59);
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        log.info("Admin export of all managers from {} to {} as {}", startDate, endDate, exportFormat);
+
+        // Partitions are rendered in parallel and zipped straight to the response
+        StreamingResponseBody body = adminExportService.prepareExport(start, end, exportFormat);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=clients_all_managers.zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @Operation(
+        summary = "Import clients",
+        description = "Bulk import clients from a CSV or XLSX file with a header row; returns per-row errors"
+    )
+    @PostMapping(value = "/clients/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ClientImportResponse> importClients(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String agentWorkId) {
+        log.info("Admin client import of {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+
+        ClientImportResponse response = clientImportService.importClients(file, agentWorkId);
+
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
         summary = "Get notifications",
         description = "Get all notifications for the admin, including login help requests"
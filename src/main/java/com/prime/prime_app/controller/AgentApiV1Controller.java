@@ -2,15 +2,20 @@ package com.prime.prime_app.controller;
 
 import com.prime.prime_app.dto.agent.AttendanceRequest;
 import com.prime.prime_app.dto.agent.AttendanceResponse;
+import com.prime.prime_app.dto.agent.ClientEntryBatchRequest;
+import com.prime.prime_app.dto.agent.ClientEntryBatchResponse;
 import com.prime.prime_app.dto.agent.ClientEntryRequest;
 import com.prime.prime_app.dto.agent.ClientEntryResponse;
 import com.prime.prime_app.dto.agent.PerformanceReportRequest;
 import com.prime.prime_app.dto.agent.PerformanceReportResponse;
 import com.prime.prime_app.entities.User;
+import com.prime.prime_app.exception.InvalidOperationException;
 import com.prime.prime_app.service.AgentService;
 import com.prime.prime_app.service.AttendanceService;
 import com.prime.prime_app.service.AuthService;
+import com.prime.prime_app.service.ClientIngestService;
 import com.prime.prime_app.service.ClientService;
+import com.prime.prime_app.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -21,6 +26,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -43,6 +49,8 @@ public class AgentApiV1Controller {
     private final AttendanceService attendanceService;
     private final ClientService clientService;
     private final AgentService agentService;
+    private final IdempotencyService idempotencyService;
+    private final ClientIngestService clientIngestService;
 
     @Operation(
         summary = "Submit attendance",
@@ -50,7 +58,13 @@ public class AgentApiV1Controller {
     )
     @PostMapping("/attendance")
     @PreAuthorize("hasRole('ROLE_AGENT')")
-    public ResponseEntity<AttendanceResponse> submitAttendance(@Valid @RequestBody AttendanceRequest request) {
+    public ResponseEntity<AttendanceResponse> submitAttendance(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody AttendanceRequest request) {
+        return idempotencyService.execute("attendance", idempotencyKey, request, () -> doSubmitAttendance(request));
+    }
+
+    private ResponseEntity<AttendanceResponse> doSubmitAttendance(AttendanceRequest request) {
         User currentUser = authService.getCurrentUser();
         log.debug("Attendance submission received for agent: {}", currentUser.getEmail());
         
@@ -88,12 +102,18 @@ public class AgentApiV1Controller {
     )
     @PostMapping("/client-entry")
     @PreAuthorize("hasRole('ROLE_AGENT')")
-    public ResponseEntity<ClientEntryResponse> logClientInteraction(@Valid @RequestBody ClientEntryRequest request) {
+    public ResponseEntity<ClientEntryResponse> logClientInteraction(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ClientEntryRequest request) {
+        return idempotencyService.execute("client-entry", idempotencyKey, request, () -> doLogClientInteraction(request));
+    }
+
+    private ResponseEntity<ClientEntryResponse> doLogClientInteraction(ClientEntryRequest request) {
         try {
             User currentUser = authService.getCurrentUser();
             log.debug("Client interaction request from agent: {}", currentUser.getEmail());
             
-            ClientEntryResponse response = agentService.logClientInteraction(currentUser, request);
+            ClientEntryResponse response = clientIngestService.logClientInteraction(currentUser, request);
             
             if (response.getStatus().startsWith("Error:")) {
                 // Return 400 Bad Request for validation errors
@@ -102,6 +122,15 @@ public class AgentApiV1Controller {
             
             log.info("Client interaction successfully logged by agent: {}", currentUser.getEmail());
             return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            // e.g. 503 when the ingest journal is saturated, so the app knows to retry
+            throw e;
+        } catch (com.prime.prime_app.exception.ValidationException | InvalidOperationException e) {
+            log.warn("Rejected client interaction: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ClientEntryResponse.builder()
+                    .status("Error: " + e.getMessage())
+                    .timeOfInteraction(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
+                    .build());
         } catch (Exception e) {
             log.error("Unexpected error logging client interaction: {}", e.getMessage(), e);
             
@@ -114,6 +143,25 @@ public class AgentApiV1Controller {
         }
     }
 
+    @Operation(
+        summary = "Sync client interactions",
+        description = "Log many client interactions at once, e.g. entries captured offline; each entry gets its own result"
+    )
+    @PostMapping("/client-entries/batch")
+    @PreAuthorize("hasRole('ROLE_AGENT')")
+    public ResponseEntity<ClientEntryBatchResponse> logClientInteractions(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ClientEntryBatchRequest request) {
+        return idempotencyService.execute("client-entry-batch", idempotencyKey, request, () -> doLogClientInteractions(request));
+    }
+
+    private ResponseEntity<ClientEntryBatchResponse> doLogClientInteractions(ClientEntryBatchRequest request) {
+        User currentUser = authService.getCurrentUser();
+        log.debug("Batch of {} client interactions from agent: {}", request.getEntries().size(), currentUser.getEmail());
+
+        return ResponseEntity.ok(agentService.logClientInteractions(currentUser, request.getEntries()));
+    }
+
     @Operation(
         summary = "Get performance report",
         description = "Get performance reports for the agent (daily, weekly, monthly)"
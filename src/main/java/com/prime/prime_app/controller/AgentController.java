@@ -7,10 +7,13 @@ import com.prime.prime_app.dto.agent.ClientEntryResponse;
 import com.prime.prime_app.dto.agent.PerformanceReportRequest;
 import com.prime.prime_app.dto.agent.PerformanceReportResponse;
 import com.prime.prime_app.entities.User;
+import com.prime.prime_app.exception.InvalidOperationException;
 import com.prime.prime_app.service.AgentService;
 import com.prime.prime_app.service.AttendanceService;
 import com.prime.prime_app.service.AuthService;
+import com.prime.prime_app.service.ClientIngestService;
 import com.prime.prime_app.service.ClientService;
+import com.prime.prime_app.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -21,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -40,6 +44,8 @@ public class AgentController {
     private final AttendanceService attendanceService;
     private final ClientService clientService;
     private final AgentService agentService;
+    private final IdempotencyService idempotencyService;
+    private final ClientIngestService clientIngestService;
 
     @Operation(
         summary = "Submit attendance",
@@ -47,7 +53,13 @@ public class AgentController {
     )
     @PostMapping("/attendance")
     @PreAuthorize("hasRole('ROLE_AGENT')")
-    public ResponseEntity<AttendanceResponse> submitAttendance(@Valid @RequestBody AttendanceRequest request) {
+    public ResponseEntity<AttendanceResponse> submitAttendance(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody AttendanceRequest request) {
+        return idempotencyService.execute("attendance", idempotencyKey, request, () -> doSubmitAttendance(request));
+    }
+
+    private ResponseEntity<AttendanceResponse> doSubmitAttendance(AttendanceRequest request) {
         User currentUser = authService.getCurrentUser();
         log.debug("Attendance submission received for agent: {}", currentUser.getEmail());
 
@@ -85,12 +97,18 @@ public class AgentController {
     )
     @PostMapping("/client-entry")
     @PreAuthorize("hasRole('ROLE_AGENT')")
-    public ResponseEntity<ClientEntryResponse> logClientInteraction(@Valid @RequestBody ClientEntryRequest request) {
+    public ResponseEntity<ClientEntryResponse> logClientInteraction(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ClientEntryRequest request) {
+        return idempotencyService.execute("client-entry", idempotencyKey, request, () -> doLogClientInteraction(request));
+    }
+
+    private ResponseEntity<ClientEntryResponse> doLogClientInteraction(ClientEntryRequest request) {
         try {
             User currentUser = authService.getCurrentUser();
             log.debug("Client interaction request from agent: {}", currentUser.getEmail());
 
-            ClientEntryResponse response = agentService.logClientInteraction(currentUser, request);
+            ClientEntryResponse response = clientIngestService.logClientInteraction(currentUser, request);
 
             if (response.getStatus().startsWith("Error:")) {
                 return ResponseEntity.badRequest().body(response);
@@ -105,6 +123,15 @@ public class AgentController {
                     .timeOfInteraction(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
                     .build();
             return ResponseEntity.badRequest().body(errorResponse);
+        } catch (ResponseStatusException e) {
+            // e.g. 503 when the ingest journal is saturated, so the app knows to retry
+            throw e;
+        } catch (com.prime.prime_app.exception.ValidationException | InvalidOperationException e) {
+            log.warn("Rejected client interaction: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ClientEntryResponse.builder()
+                    .status("Error: " + e.getMessage())
+                    .timeOfInteraction(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME))
+                    .build());
         } catch (Exception e) {
             log.error("Unexpected error logging client interaction: {}", e.getMessage(), e);
             ClientEntryResponse errorResponse = ClientEntryResponse.builder()
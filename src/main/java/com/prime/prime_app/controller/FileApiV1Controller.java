@@ -0,0 +1,56 @@
+package com.prime.prime_app.controller;
+
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.service.AuthService;
+import com.prime.prime_app.service.FileDeliveryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * This controller handles the /api/v1/files/* URL pattern for downloading stored files.
+ * Only endpoints with explicit v1 versioning belong here.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/files")
+@RequiredArgsConstructor
+@Tag(name = "Files API v1", description = "Download stored reports and profile images")
+public class FileApiV1Controller {
+
+    private final AuthService authService;
+    private final FileDeliveryService fileDeliveryService;
+
+    @Operation(
+        summary = "Download daily report",
+        description = "Download a stored daily report PDF; supports Range requests and gzip when accepted"
+    )
+    @GetMapping("/reports/{filename}")
+    public void downloadReport(
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        User currentUser = authService.getCurrentUser();
+        log.debug("Report download {} requested by {}", filename, currentUser.getEmail());
+
+        fileDeliveryService.deliverReport(currentUser, filename, request, response);
+    }
+
+    @Operation(
+        summary = "Get profile image",
+        description = "Download a stored profile image; supports Range requests"
+    )
+    @GetMapping("/profile-images/{filename}")
+    public void getProfileImage(
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        fileDeliveryService.deliverProfileImage(filename, request, response);
+    }
+}
@@ -2,20 +2,24 @@ package com.prime.prime_app.controller;
 
 import com.prime.prime_app.dto.manager.*;
 import com.prime.prime_app.entities.User;
+import com.prime.prime_app.enums.ExportFormat;
 import com.prime.prime_app.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,9 +38,11 @@ public class ManagerApiController {
     private final AuthService authService;
     private final ManagerService managerService;
     private final AgentService agentService;
-    private final ExcelExportService excelExportService;
-    private final ReportExportService reportExportService;
+    private final ExportCacheService exportCacheService;
     private final AgentCommentService agentCommentService;
+    private final ReportJobService reportJobService;
+    private final DashboardStreamService dashboardStreamService;
+    private final AgentOnboardingService agentOnboardingService;
     
     @Operation(
         summary = "Get agents",
@@ -55,6 +61,19 @@ public class ManagerApiController {
                 .build());
     }
     
+    @Operation(
+        summary = "Add agents in bulk",
+        description = "Create many agents under the current manager at once; each agent gets its own result"
+    )
+    @PostMapping("/agents/batch")
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    public ResponseEntity<BatchAgentResponse> addAgents(@Valid @RequestBody BatchAgentRequest request) {
+        User currentUser = authService.getCurrentUser();
+        log.debug("Manager {} onboarding {} agents", currentUser.getEmail(), request.getAgents().size());
+
+        return ResponseEntity.ok(agentOnboardingService.onboardAgents(currentUser.getId(), request.getAgents()));
+    }
+
     @Operation(
         summary = "Add agent",
         description = "Create and add a new agent under the current manager with required details"
@@ -121,14 +140,16 @@ public class ManagerApiController {
 
     @Operation(
         summary = "Export client data",
-        description = "Export client data as Excel or PDF for the specified date range"
+        description = "Export client data as PDF, Excel, CSV or NDJSON (optionally gzip-compressed) for the specified date range"
     )
     @GetMapping("/reports/export")
     @PreAuthorize("hasRole('ROLE_MANAGER')")
-    public ResponseEntity<InputStreamResource> exportReports(
+    public ResponseEntity<StreamingResponseBody> exportReports(
             @RequestParam String startDate,
             @RequestParam String endDate,
-            @RequestParam(defaultValue = "pdf") String format) {
+            @RequestParam(defaultValue = "pdf") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            WebRequest webRequest) {
         
         User currentUser = authService.getCurrentUser();
         log.debug("Manager {} exporting reports in {} format", currentUser.getEmail(), format);
@@ -136,32 +157,79 @@ public class ManagerApiController {
         LocalDateTime start = LocalDate.parse(startDate).atStartOfDay();
         LocalDateTime end = LocalDate.parse(endDate).atTime(23, 59, 59);
 
-        var clients = managerService.getClientsForExport(currentUser.getId(), start, end);
-        
-        HttpHeaders headers = new HttpHeaders();
-        ByteArrayInputStream fileStream;
-        MediaType mediaType;
-        String filename;
-        
-        // Choose format based on request parameter
-        if ("excel".equalsIgnoreCase(format)) {
-            fileStream = reportExportService.exportClientsToExcel(clients);
-            mediaType = MediaType.parseMediaType("application/vnd.ms-excel");
-            filename = "clients_report.xlsx";
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
-        } else {
-            // Default to PDF
-            fileStream = reportExportService.exportClientsToPdf(clients);
-            mediaType = MediaType.APPLICATION_PDF;
-            filename = "clients_report.pdf";
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        Long managerId = currentUser.getId();
+
+        // Unchanged data since the client's copy: answer 304 without rendering anything
+        ExportCacheService.ExportVersion version = exportCacheService.resolve(managerId, start, end, exportFormat, gzip);
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
         }
+        StreamingResponseBody body = exportCacheService.stream(version);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(version.etag());
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + exportFormat.getFilename("clients_report", gzip));
+        MediaType mediaType = MediaType.parseMediaType(exportFormat.getContentType(gzip));
 
         return ResponseEntity
                 .ok()
                 .headers(headers)
                 .contentType(mediaType)
-                .body(new InputStreamResource(fileStream));
+                .body(body);
+    }
+
+    @Operation(
+        summary = "Submit report job",
+        description = "Queue a report or export to be computed in the background; poll the job and download the result when it completes"
+    )
+    @PostMapping("/reports/jobs")
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    public ResponseEntity<ReportJobResponse> submitReportJob(@Valid @RequestBody ReportJobRequest request) {
+        User currentUser = authService.getCurrentUser();
+        log.debug("Manager {} submitting {} report job", currentUser.getEmail(), request.getType());
+
+        ReportJobResponse job = reportJobService.submit(currentUser, request);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @Operation(
+        summary = "List report jobs",
+        description = "List the current manager's report jobs, newest first"
+    )
+    @GetMapping("/reports/jobs")
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    public ResponseEntity<List<ReportJobResponse>> getReportJobs() {
+        User currentUser = authService.getCurrentUser();
+        return ResponseEntity.ok(reportJobService.getJobs(currentUser));
+    }
+
+    @Operation(
+        summary = "Get report job status",
+        description = "Get the status of a report job"
+    )
+    @GetMapping("/reports/jobs/{jobId}")
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String jobId) {
+        User currentUser = authService.getCurrentUser();
+        return ResponseEntity.ok(reportJobService.getStatus(currentUser, jobId));
+    }
+
+    @Operation(
+        summary = "Download report job result",
+        description = "Download the result of a completed report job"
+    )
+    @GetMapping("/reports/jobs/{jobId}/result")
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    public ResponseEntity<Resource> getReportJobResult(@PathVariable String jobId) {
+        User currentUser = authService.getCurrentUser();
+        ReportJobService.JobResult result = reportJobService.getResult(currentUser, jobId);
+
+        return ResponseEntity
+                .ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + result.filename())
+                .contentType(MediaType.parseMediaType(result.contentType()))
+                .body(new FileSystemResource(result.path()));
     }
 
     @Operation(
@@ -189,6 +257,19 @@ public class ManagerApiController {
         }
     }
 
+    @Operation(
+        summary = "Stream dashboard updates",
+        description = "Server-Sent Events stream: an initial dashboard snapshot, then deltas as agents check in and log clients"
+    )
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    public SseEmitter streamDashboard() {
+        User currentUser = authService.getCurrentUser();
+        log.debug("Manager {} opening dashboard stream", currentUser.getEmail());
+
+        return dashboardStreamService.subscribe(currentUser);
+    }
+
     @GetMapping("/dashboard")
     public ResponseEntity<ManagerDashboardResponse> getDashboard() {
         User currentUser = authService.getCurrentUser();
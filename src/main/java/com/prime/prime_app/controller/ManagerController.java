@@ -2,22 +2,22 @@ package com.prime.prime_app.controller;
 
 import com.prime.prime_app.dto.manager.*;
 import com.prime.prime_app.entities.User;
-import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.enums.ExportFormat;
 import com.prime.prime_app.service.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
@@ -37,9 +37,9 @@ public class ManagerController {
     private final ManagerService managerService;
     private final AgentService agentService;
     private final AttendanceService attendanceService;
-    private final ExcelExportService excelExportService;
-    private final ReportExportService reportExportService;
+    private final ExportCacheService exportCacheService;
     private final AgentCommentService agentCommentService;
+    private final ReportMemoService reportMemoService;
 
     @Operation(
             summary = "Get agents",
@@ -183,7 +183,7 @@ public class ManagerController {
         User currentUser = authService.getCurrentUser();
         log.debug("Manager {} requesting reports", currentUser.getEmail());
 
-        ReportsResponse response = managerService.generateReports(currentUser, period);
+        ReportsResponse response = reportMemoService.getReport(currentUser, period);
 
         return ResponseEntity.ok(response);
     }
@@ -199,7 +199,7 @@ public class ManagerController {
         User currentUser = authService.getCurrentUser();
         log.debug("Manager {} requesting daily clients breakdown", currentUser.getEmail());
 
-        ReportsResponse response = managerService.generateReports(currentUser, period);
+        ReportsResponse response = reportMemoService.getReport(currentUser, period);
 
         Map<String, Map<String, Integer>> result = new HashMap<>();
         response.getAgentReports().forEach(agent -> {
@@ -220,7 +220,7 @@ public class ManagerController {
         User currentUser = authService.getCurrentUser();
         log.debug("Manager {} requesting sectors breakdown", currentUser.getEmail());
 
-        ReportsResponse response = managerService.generateReports(currentUser, period);
+        ReportsResponse response = reportMemoService.getReport(currentUser, period);
 
         Map<String, Map<String, List<String>>> result = new HashMap<>();
         response.getAgentReports().forEach(agent -> {
@@ -241,7 +241,7 @@ public class ManagerController {
         User currentUser = authService.getCurrentUser();
         log.debug("Manager {} requesting work status breakdown", currentUser.getEmail());
 
-        ReportsResponse response = managerService.generateReports(currentUser, period);
+        ReportsResponse response = reportMemoService.getReport(currentUser, period);
 
         Map<String, Map<String, String>> result = new HashMap<>();
         response.getAgentReports().forEach(agent -> {
@@ -251,15 +251,46 @@ public class ManagerController {
         return ResponseEntity.ok(result);
     }
 
+    @Operation(
+            summary = "Get full report breakdown for agents",
+            description = "Get daily clients, sectors and work status breakdowns for all agents under the manager in one call"
+    )
+    @GetMapping("/reports/breakdown")
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    public ResponseEntity<ReportsBreakdownResponse> getAgentReportsBreakdown(
+            @RequestParam("period") ReportsRequest.Period period) {
+        User currentUser = authService.getCurrentUser();
+        log.debug("Manager {} requesting combined reports breakdown", currentUser.getEmail());
+
+        ReportsResponse response = reportMemoService.getReport(currentUser, period);
+
+        Map<String, Map<String, Integer>> clients = new HashMap<>();
+        Map<String, Map<String, List<String>>> sectors = new HashMap<>();
+        Map<String, Map<String, String>> workStatus = new HashMap<>();
+        response.getAgentReports().forEach(agent -> {
+            clients.put(agent.getAgentName(), agent.getDailyClientsCount());
+            sectors.put(agent.getAgentName(), agent.getDailySectors());
+            workStatus.put(agent.getAgentName(), agent.getWorkStatus());
+        });
+
+        return ResponseEntity.ok(ReportsBreakdownResponse.builder()
+                .dailyClientsCount(clients)
+                .dailySectors(sectors)
+                .workStatus(workStatus)
+                .build());
+    }
+
     @Operation(
             summary = "Export client data",
-            description = "Export client data as Excel or PDF for the specified period"
+            description = "Export client data as PDF, Excel, CSV or NDJSON (optionally gzip-compressed) for the specified period"
     )
     @GetMapping("/reports/export")
     @PreAuthorize("hasRole('ROLE_MANAGER')")
-    public ResponseEntity<InputStreamResource> exportReports(
+    public ResponseEntity<StreamingResponseBody> exportReports(
             @RequestParam ReportsRequest.Period period,
-            @RequestParam(defaultValue = "pdf") String format) {
+            @RequestParam(defaultValue = "pdf") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            WebRequest webRequest) {
 
         User currentUser = authService.getCurrentUser();
         log.debug("Manager {} exporting reports in {} format", currentUser.getEmail(), format);
@@ -284,32 +315,26 @@ public class ManagerController {
         LocalDateTime start = startDate.atStartOfDay();
         LocalDateTime end = endDate.atTime(23, 59, 59);
 
-        List<Client> clients = managerService.getClientsForExport(currentUser, start, end);
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        Long managerId = currentUser.getId();
 
-        HttpHeaders headers = new HttpHeaders();
-        ByteArrayInputStream fileStream;
-        MediaType mediaType;
-        String filename;
-
-        // Choose format based on request parameter
-        if ("excel".equalsIgnoreCase(format)) {
-            fileStream = excelExportService.exportClientsToExcel(clients);
-            mediaType = MediaType.parseMediaType("application/vnd.ms-excel");
-            filename = "clients_report.xlsx";
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
-        } else {
-            // Default to PDF
-            fileStream = reportExportService.exportClientsToPdf(clients);
-            mediaType = MediaType.APPLICATION_PDF;
-            filename = "clients_report.pdf";
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        // Unchanged data since the client's copy: answer 304 without rendering anything
+        ExportCacheService.ExportVersion version = exportCacheService.resolve(managerId, start, end, exportFormat, gzip);
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
         }
+        StreamingResponseBody body = exportCacheService.stream(version);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(version.etag());
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + exportFormat.getFilename("clients_report", gzip));
+        MediaType mediaType = MediaType.parseMediaType(exportFormat.getContentType(gzip));
 
         return ResponseEntity
                 .ok()
                 .headers(headers)
                 .contentType(mediaType)
-                .body(new InputStreamResource(fileStream));
+                .body(body);
     }
 
     @Operation(
@@ -0,0 +1,19 @@
+package com.prime.prime_app.dto.agent;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientEntryBatchRequest {
+    // Entries are validated one by one so a bad entry is rejected alone
+    @NotEmpty(message = "At least one client entry is required")
+    private List<ClientEntryRequest> entries;
+}
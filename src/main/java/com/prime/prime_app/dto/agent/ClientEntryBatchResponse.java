@@ -0,0 +1,36 @@
+package com.prime.prime_app.dto.agent;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClientEntryBatchResponse {
+    public enum Status {
+        SAVED,
+        REJECTED
+    }
+
+    private int saved;
+    private int rejected;
+    private String timeOfInteraction;
+    private List<EntryResult> results;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class EntryResult {
+        // Position of the entry in the request
+        private int index;
+        private String nationalId;
+        private Status status;
+        private String message;
+    }
+}
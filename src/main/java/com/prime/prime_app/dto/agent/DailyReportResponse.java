@@ -1,5 +1,6 @@
 package com.prime.prime_app.dto.agent;
 
+import com.prime.prime_app.entities.ReportStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +16,7 @@ public class DailyReportResponse {
     private Long id;
     private LocalDate date;
     private String pdfPath;
+    private ReportStatus status;
     private String comment;
     private String message;
 } 
\ No newline at end of file
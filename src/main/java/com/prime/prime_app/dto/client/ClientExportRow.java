@@ -0,0 +1,31 @@
+package com.prime.prime_app.dto.client;
+
+import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.entities.PolicyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for client exports. Built by a JPQL constructor expression that joins the
+ * agent name, so writers never touch a {@link Client} entity or its lazy agent.
+ * Field order matches the constructor used by {@code ClientRepository.streamExportRowsByManager}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientExportRow {
+    private Long id;
+    private String name;
+    private String nationalId;
+    private String phoneNumber;
+    private Client.InsuranceType insuranceType;
+    private String location;
+    private String agentName;
+    private LocalDateTime timeOfInteraction;
+    private PolicyStatus policyStatus;
+}
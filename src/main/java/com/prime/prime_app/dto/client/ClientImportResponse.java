@@ -0,0 +1,33 @@
+package com.prime.prime_app.dto.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientImportResponse {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long durationMs;
+    // Capped; failed may be larger than errors.size()
+    private List<RowError> errors;
+    // Set when the file could not be read to the end; rows before that point were imported
+    private String fileError;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String nationalId;
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.prime.prime_app.dto.manager;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAgentRequest {
+    // Rows are validated one by one so a bad row fails alone instead of the whole batch
+    @NotEmpty(message = "At least one agent is required")
+    private List<AgentManagementRequest> agents;
+}
@@ -0,0 +1,36 @@
+package com.prime.prime_app.dto.manager;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAgentResponse {
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    private int created;
+    private int failed;
+    private List<AgentResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AgentResult {
+        // Position of the agent in the request
+        private int index;
+        private String workId;
+        private Status status;
+        private Long agentId;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.prime.prime_app.dto.manager;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardDelta {
+    public enum Type {
+        AGENT_CHECKED_IN,
+        CLIENT_LOGGED,
+        TEAM_CHANGED
+    }
+
+    private Type type;
+    private Long agentId;
+    private String agentName;
+    private LocalDateTime occurredAt;
+}
@@ -18,6 +18,9 @@ public class ManagerDashboardResponse {
     
     private List<WeeklyDataEntry> weeklyData;
     private List<PerformanceDataEntry> performanceData;
+
+    // True when a section timed out or failed and was replaced by an empty value
+    private boolean partial;
     
     @Data
     @Builder
@@ -0,0 +1,31 @@
+package com.prime.prime_app.dto.manager;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobRequest {
+    public enum Type {
+        REPORT,
+        EXPORT
+    }
+
+    @NotNull(message = "Job type is required")
+    private Type type;
+
+    // REPORT jobs
+    private ReportsRequest.Period period;
+
+    // EXPORT jobs; format is "pdf" (default), "excel", "csv" or "ndjson". Job results are never gzipped
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String format;
+}
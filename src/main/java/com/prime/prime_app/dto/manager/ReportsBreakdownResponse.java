@@ -0,0 +1,19 @@
+package com.prime.prime_app.dto.manager;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportsBreakdownResponse {
+    // Agent name -> (Day -> value), same shape as the individual breakdown endpoints
+    private Map<String, Map<String, Integer>> dailyClientsCount;
+    private Map<String, Map<String, List<String>>> dailySectors;
+    private Map<String, Map<String, String>> workStatus;
+}
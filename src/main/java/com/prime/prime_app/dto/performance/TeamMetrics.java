@@ -0,0 +1,30 @@
+package com.prime.prime_app.dto.performance;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-row team aggregate returned by {@code PerformanceRepository.getTeamPerformanceMetrics}
+ */
+public interface TeamMetrics {
+    Long getTotalClients();
+
+    Long getActiveAgents();
+
+    Long getAvgClientsPerDay();
+
+    /**
+     * Metric name -> value, the shape the dashboard and team performance responses expose
+     */
+    default Map<String, Integer> toMap() {
+        return toMap(getTotalClients(), getActiveAgents(), getAvgClientsPerDay());
+    }
+
+    static Map<String, Integer> toMap(Long totalClients, Long activeAgents, Long avgClientsPerDay) {
+        Map<String, Integer> metrics = new HashMap<>();
+        metrics.put("totalClients", totalClients != null ? totalClients.intValue() : 0);
+        metrics.put("activeAgents", activeAgents != null ? activeAgents.intValue() : 0);
+        metrics.put("avgClientsPerDay", avgClientsPerDay != null ? avgClientsPerDay.intValue() : 0);
+        return metrics;
+    }
+}
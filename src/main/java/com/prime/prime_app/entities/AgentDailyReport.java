@@ -16,7 +16,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "agent_daily_reports", indexes = {
     @Index(name = "idx_report_date", columnList = "report_date"),
-    @Index(name = "idx_agent_date", columnList = "agent_id,report_date", unique = true)
+    @Index(name = "idx_agent_date", columnList = "agent_id,report_date", unique = true),
+    @Index(name = "idx_report_status", columnList = "status"),
+    @Index(name = "idx_report_pdf_path", columnList = "pdf_path")
 })
 public class AgentDailyReport {
     @Id
@@ -32,6 +34,11 @@ public class AgentDailyReport {
 
     @Column(name = "pdf_path")
     private String pdfPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    @Builder.Default
+    private ReportStatus status = ReportStatus.PENDING;
     
     @Column(name = "daily_comment", length = 500)
     private String dailyComment;
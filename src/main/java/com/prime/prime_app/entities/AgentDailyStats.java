@@ -0,0 +1,95 @@
+package com.prime.prime_app.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-agent, per-day activity rollup. Maintained in the same transaction as the
+ * client, work log and attendance writes so reports can read one row per day
+ * instead of scanning clients and work_logs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "agent_daily_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_agent_stat_date", columnNames = {"agent_id", "stat_date"})
+}, indexes = {
+        @Index(name = "idx_stat_date", columnList = "stat_date")
+})
+public class AgentDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "agent_id", nullable = false)
+    private User agent;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "client_count", nullable = false)
+    @Builder.Default
+    private int clientCount = 0;
+
+    // Comma separated, distinct insurance types of the day's clients
+    @Column(name = "insurance_types")
+    private String insuranceTypes;
+
+    // Sector reported on the day's work log
+    @Column(name = "sector")
+    private String sector;
+
+    @Column(name = "checked_in", nullable = false)
+    @Builder.Default
+    private boolean checkedIn = false;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "work_status")
+    private WorkLog.WorkStatus workStatus;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @Transient
+    public List<String> getInsuranceTypeList() {
+        if (insuranceTypes == null || insuranceTypes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(insuranceTypes.split(",")));
+    }
+
+    public void addInsuranceType(String insuranceType) {
+        List<String> types = getInsuranceTypeList();
+        if (!types.contains(insuranceType)) {
+            types.add(insuranceType);
+            insuranceTypes = String.join(",", types);
+        }
+    }
+}
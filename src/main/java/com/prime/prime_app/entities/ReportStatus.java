@@ -0,0 +1,7 @@
+package com.prime.prime_app.entities;
+
+public enum ReportStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,42 @@
+package com.prime.prime_app.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a one-off history backfill, so an interrupted run resumes where it
+ * stopped and a finished one is never repeated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stats_backfill_marker")
+public class StatsBackfillMarker {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    // Every day from here onwards is backfilled
+    @Column(name = "covered_from", nullable = false)
+    private LocalDate coveredFrom;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
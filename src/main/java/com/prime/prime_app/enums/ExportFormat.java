@@ -0,0 +1,60 @@
+package com.prime.prime_app.enums;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+
+/**
+ * Output formats for client exports
+ */
+public enum ExportFormat {
+    PDF("application/pdf", "pdf"),
+    EXCEL("application/vnd.ms-excel", "xlsx"),
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Content type of the download, which is a plain gzip file when compressed
+     */
+    public String getContentType(boolean gzip) {
+        return gzip ? "application/gzip" : contentType;
+    }
+
+    public String getFilename(String baseName, boolean gzip) {
+        return baseName + "." + extension + (gzip ? ".gz" : "");
+    }
+
+    /**
+     * Parse the {@code format} request parameter. No format means PDF; an unknown one is
+     * a 400 rather than a silently different file.
+     */
+    public static ExportFormat fromParam(String format) {
+        if (format == null || format.isBlank()) {
+            return PDF;
+        }
+        for (ExportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Unsupported export format '" + format + "'; expected one of " + Arrays.toString(values()));
+    }
+}
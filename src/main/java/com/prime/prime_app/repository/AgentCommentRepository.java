@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,10 @@ public interface AgentCommentRepository extends JpaRepository<AgentComment, Long
     // Find comment for an agent on a specific date
     Optional<AgentComment> findByAgentAndCommentDate(User agent, LocalDate date);
 
+    // Find comments for a set of agents on a specific date
+    @Query("SELECT ac FROM AgentComment ac WHERE ac.agent.id IN ?1 AND ac.commentDate = ?2")
+    List<AgentComment> findByAgentIdsAndCommentDate(Collection<Long> agentIds, LocalDate date);
+
     // Find all comments for an agent
     List<AgentComment> findByAgent(User agent);
 
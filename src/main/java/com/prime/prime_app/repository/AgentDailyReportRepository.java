@@ -1,11 +1,16 @@
 package com.prime.prime_app.repository;
 
 import com.prime.prime_app.entities.AgentDailyReport;
+import com.prime.prime_app.entities.ReportStatus;
 import com.prime.prime_app.entities.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +29,31 @@ public interface AgentDailyReportRepository extends JpaRepository<AgentDailyRepo
     // Find reports for an agent within a date range
     List<AgentDailyReport> findByAgentAndReportDateBetweenOrderByReportDateDesc(
             User agent, LocalDate startDate, LocalDate endDate);
-} 
\ No newline at end of file
+
+    // Agent and manager id of the report stored at this path, for download checks
+    @Query("SELECT a.id, m.id FROM AgentDailyReport r JOIN r.agent a LEFT JOIN a.manager m WHERE r.pdfPath = :pdfPath")
+    List<Object[]> findOwnerIdsByPdfPath(String pdfPath);
+
+    @Query("SELECT r.agent.id FROM AgentDailyReport r WHERE r.reportDate = :date")
+    List<Long> findAgentIdsByReportDate(LocalDate date);
+
+    @Query("SELECT r.id FROM AgentDailyReport r WHERE r.status = :status ORDER BY r.id")
+    List<Long> findIdsByStatus(ReportStatus status, Pageable pageable);
+
+    // Queue the day's existing reports for these agents for re-rendering
+    @Modifying
+    @Query("UPDATE AgentDailyReport r SET r.status = com.prime.prime_app.entities.ReportStatus.PENDING, " +
+           "r.updatedAt = CURRENT_TIMESTAMP WHERE r.reportDate = :date AND r.agent.id IN :agentIds")
+    int markPending(LocalDate date, Collection<Long> agentIds);
+
+    @Modifying
+    @Query("UPDATE AgentDailyReport r SET r.status = com.prime.prime_app.entities.ReportStatus.READY, " +
+           "r.pdfPath = :pdfPath, r.updatedAt = CURRENT_TIMESTAMP WHERE r.id = :id")
+    int markReady(Long id, String pdfPath);
+
+    // Keeps any previously rendered PDF in place
+    @Modifying
+    @Query("UPDATE AgentDailyReport r SET r.status = com.prime.prime_app.entities.ReportStatus.FAILED, " +
+           "r.updatedAt = CURRENT_TIMESTAMP WHERE r.id = :id")
+    int markFailed(Long id);
+}
@@ -0,0 +1,56 @@
+package com.prime.prime_app.repository;
+
+import com.prime.prime_app.entities.AgentDailyStats;
+import com.prime.prime_app.entities.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AgentDailyStatsRepository extends JpaRepository<AgentDailyStats, Long> {
+
+    // Creates the (agent, day) row if missing; a concurrent insert of the same row is a no-op instead of a duplicate key.
+    // Returns 1 when this call created the row and 0 when it already existed
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO agent_daily_stats (agent_id, stat_date, client_count, checked_in, created_at, updated_at)
+            VALUES (?1, ?2, 0, false, NOW(), NOW())
+            """, nativeQuery = true)
+    int insertIfAbsent(Long agentId, LocalDate statDate);
+
+    // Backfill insert; leaves a row that a live write created in the meantime alone
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO agent_daily_stats
+                (agent_id, stat_date, client_count, insurance_types, sector, checked_in, work_status, created_at, updated_at)
+            VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7, NOW(), NOW())
+            """, nativeQuery = true)
+    int insertBackfilled(Long agentId, LocalDate statDate, int clientCount, String insuranceTypes,
+                         String sector, boolean checkedIn, String workStatus);
+
+    // Row-locked read used by the incremental write path
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AgentDailyStats s WHERE s.agent.id = ?1 AND s.statDate = ?2")
+    Optional<AgentDailyStats> findForUpdate(Long agentId, LocalDate statDate);
+
+    @Query("SELECT s FROM AgentDailyStats s WHERE s.agent = ?1 AND s.statDate BETWEEN ?2 AND ?3")
+    List<AgentDailyStats> findByAgentAndDateRange(User agent, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT s FROM AgentDailyStats s WHERE s.agent.id IN ?1 AND s.statDate BETWEEN ?2 AND ?3")
+    List<AgentDailyStats> findByAgentIdsAndDateRange(Collection<Long> agentIds, LocalDate startDate, LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM AgentDailyStats s WHERE s.agent = ?1")
+    void deleteByAgent(User agent);
+
+    @Query("SELECT s.agent.id, s.statDate FROM AgentDailyStats s WHERE s.statDate BETWEEN ?1 AND ?2")
+    List<Object[]> findKeysByDateRange(LocalDate startDate, LocalDate endDate);
+}
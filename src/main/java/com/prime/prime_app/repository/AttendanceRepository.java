@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,9 +22,16 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     @Query("SELECT a FROM Attendance a WHERE a.agent.id = ?1 ORDER BY a.checkInTime DESC LIMIT 1")
     Optional<Attendance> findLatestByAgent(Long agentId);
     
+    @Query("SELECT a FROM Attendance a WHERE a.agent.id IN ?1 AND a.checkInTime = " +
+           "(SELECT MAX(a2.checkInTime) FROM Attendance a2 WHERE a2.agent.id = a.agent.id)")
+    List<Attendance> findLatestByAgentIds(Collection<Long> agentIds);
+    
     @Query("SELECT COUNT(DISTINCT FUNCTION('DATE', a.checkInTime)) FROM Attendance a WHERE a.agent.id = ?1 AND a.checkInTime BETWEEN ?2 AND ?3")
     int countWorkingDaysByAgent(Long agentId, LocalDateTime startDate, LocalDateTime endDate);
     
+    @Query("SELECT a.agent.id, COUNT(DISTINCT FUNCTION('DATE', a.checkInTime)) FROM Attendance a WHERE a.agent.id IN ?1 AND a.checkInTime BETWEEN ?2 AND ?3 GROUP BY a.agent.id")
+    List<Object[]> countWorkingDaysByAgentIds(Collection<Long> agentIds, LocalDateTime startDate, LocalDateTime endDate);
+    
     Page<Attendance> findByAgent(User agent, Pageable pageable);
     
     Page<Attendance> findByManager(User manager, Pageable pageable);
@@ -61,6 +69,15 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
     List<Attendance> findByManagerAndCheckInTimeBetween(User manager, LocalDateTime start, LocalDateTime end);
     
+    @Query("SELECT DISTINCT a.agent.id, FUNCTION('DATE', a.checkInTime) FROM Attendance a WHERE a.checkInTime BETWEEN ?1 AND ?2")
+    List<Object[]> findAgentCheckInDays(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT MIN(a.checkInTime) FROM Attendance a")
+    LocalDateTime findEarliestCheckIn();
+    
     @Query("SELECT DISTINCT a.agent.id FROM Attendance a WHERE a.checkInTime BETWEEN ?1 AND ?2")
     List<Long> findAgentIdsWithAttendanceBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT DISTINCT a.agent.id FROM Attendance a WHERE a.agent.id IN ?1 AND a.checkInTime BETWEEN ?2 AND ?3")
+    List<Long> findCheckedInAgentIds(Collection<Long> agentIds, LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
@@ -1,31 +1,90 @@
 package com.prime.prime_app.repository;
 
+import com.prime.prime_app.dto.client.ClientExportRow;
 import com.prime.prime_app.entities.Client;
 import com.prime.prime_app.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT COUNT(c) FROM Client c WHERE c.agent.id = :agentId AND DATE(c.timeOfInteraction) = CURRENT_DATE")
     int countTodaysClientsByAgent(Long agentId);
 
+    @Query("SELECT c.agent.id, COUNT(c) FROM Client c WHERE c.agent.id IN :agentIds AND c.timeOfInteraction BETWEEN :startDate AND :endDate GROUP BY c.agent.id")
+    List<Object[]> countByAgentIdsAndDateBetween(Collection<Long> agentIds, LocalDateTime startDate, LocalDateTime endDate);
+
     @Query("SELECT COUNT(c) FROM Client c WHERE c.agent.id = :agentId AND c.timeOfInteraction BETWEEN :startDate AND :endDate")
     int countByAgentAndDateBetween(Long agentId, LocalDateTime startDate, LocalDateTime endDate);
 
     @Query("SELECT DISTINCT c.sector FROM Client c WHERE c.agent.id = :agentId AND c.timeOfInteraction BETWEEN :startDate AND :endDate")
     List<String> findDistinctSectorsByAgent(Long agentId, LocalDateTime startDate, LocalDateTime endDate);
 
+    @Query("SELECT DISTINCT c.agent.id, c.sector FROM Client c WHERE c.agent.id IN :agentIds AND c.timeOfInteraction BETWEEN :startDate AND :endDate")
+    List<Object[]> findDistinctSectorsByAgentIds(Collection<Long> agentIds, LocalDateTime startDate, LocalDateTime endDate);
+
     @Query("SELECT c FROM Client c WHERE c.agent.manager = :manager AND c.timeOfInteraction BETWEEN :startDate AND :endDate")
     List<Client> findByManagerAndDateBetween(User manager, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Export rows for a manager's team, read through a forward-only cursor.
+     * A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of
+     * buffering the whole result; the stream must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.prime.prime_app.dto.client.ClientExportRow(c.id, c.name, c.nationalId, c.phoneNumber, " +
+           "c.insuranceType, c.location, a.name, c.timeOfInteraction, c.policyStatus) " +
+           "FROM Client c JOIN c.agent a " +
+           "WHERE a.manager.id = :managerId AND c.timeOfInteraction BETWEEN :startDate AND :endDate " +
+           "ORDER BY c.timeOfInteraction")
+    Stream<ClientExportRow> streamExportRowsByManager(Long managerId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Single row of (count, max id, max interaction time, max update time) over the same
+     * selection as {@link #streamExportRowsByManager}; changes whenever that export would.
+     */
+    @Query("SELECT COUNT(c), MAX(c.id), MAX(c.timeOfInteraction), MAX(c.updatedAt) " +
+           "FROM Client c JOIN c.agent a " +
+           "WHERE a.manager.id = :managerId AND c.timeOfInteraction BETWEEN :startDate AND :endDate")
+    List<Object[]> findExportVersionByManager(Long managerId, LocalDateTime startDate, LocalDateTime endDate);
+
+    @Query("SELECT new com.prime.prime_app.dto.client.ClientExportRow(c.id, c.name, c.nationalId, c.phoneNumber, " +
+           "c.insuranceType, c.location, a.name, c.timeOfInteraction, c.policyStatus) " +
+           "FROM Client c JOIN c.agent a " +
+           "WHERE a.id = :agentId AND c.timeOfInteraction BETWEEN :startDate AND :endDate " +
+           "ORDER BY c.timeOfInteraction")
+    List<ClientExportRow> findExportRowsByAgent(Long agentId, LocalDateTime startDate, LocalDateTime endDate);
+
+    @Query("SELECT DISTINCT c.agent.id FROM Client c WHERE c.timeOfInteraction BETWEEN :startDate AND :endDate")
+    List<Long> findAgentIdsWithClientsBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    // Values from the given set that are already taken, for set-based uniqueness checks
+    @Query("SELECT c.nationalId FROM Client c WHERE c.nationalId IN :nationalIds")
+    List<String> findExistingNationalIds(Collection<String> nationalIds);
+
+    @Query("SELECT c.email FROM Client c WHERE c.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT c.policyNumber FROM Client c WHERE c.policyNumber IN :policyNumbers")
+    List<String> findExistingPolicyNumbers(Collection<String> policyNumbers);
+
     Optional<Client> findByEmail(String email);
     Optional<Client> findByPolicyNumber(String policyNumber);
     Page<Client> findByAgent(User agent, Pageable pageable);
@@ -53,6 +112,28 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT DISTINCT c.insuranceType FROM Client c WHERE c.agent = ?1 AND c.timeOfInteraction BETWEEN ?2 AND ?3")
     List<String> findInsuranceTypesByAgentAndTimeRange(User agent, LocalDateTime startTime, LocalDateTime endTime);
     
+    @Query("SELECT c.agent.id, FUNCTION('DATE', c.timeOfInteraction), c.insuranceType, COUNT(c) FROM Client c " +
+           "WHERE c.timeOfInteraction BETWEEN ?1 AND ?2 " +
+           "GROUP BY c.agent.id, FUNCTION('DATE', c.timeOfInteraction), c.insuranceType")
+    List<Object[]> countByAgentDayAndInsuranceType(LocalDateTime startTime, LocalDateTime endTime);
+
+    @Query("SELECT c.insuranceType, COUNT(c) FROM Client c " +
+           "WHERE c.agent.id = ?1 AND c.timeOfInteraction BETWEEN ?2 AND ?3 GROUP BY c.insuranceType")
+    List<Object[]> countByAgentAndInsuranceType(Long agentId, LocalDateTime startTime, LocalDateTime endTime);
+
+    @Query("SELECT MIN(c.timeOfInteraction) FROM Client c")
+    LocalDateTime findEarliestInteraction();
+    
     @Query("SELECT c FROM Client c WHERE c.agent = ?1 AND c.timeOfInteraction BETWEEN ?2 AND ?3")
     List<Client> findByAgentAndDateBetween(User agent, LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+    @Query("SELECT FUNCTION('DATE', c.timeOfInteraction), COUNT(c) FROM Client c " +
+           "WHERE c.agent.manager.id = :managerId AND c.timeOfInteraction BETWEEN :startDate AND :endDate " +
+           "GROUP BY FUNCTION('DATE', c.timeOfInteraction)")
+    List<Object[]> countDailyByManager(Long managerId, LocalDateTime startDate, LocalDateTime endDate);
+
+    @Query("SELECT FUNCTION('DATE', c.timeOfInteraction), COUNT(c) FROM Client c " +
+           "WHERE c.agent.id = :agentId AND c.timeOfInteraction BETWEEN :startDate AND :endDate " +
+           "GROUP BY FUNCTION('DATE', c.timeOfInteraction)")
+    List<Object[]> countDailyByAgent(Long agentId, LocalDateTime startDate, LocalDateTime endDate);
+}
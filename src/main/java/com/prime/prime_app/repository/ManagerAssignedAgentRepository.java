@@ -13,8 +13,20 @@ import java.util.Optional;
 public interface ManagerAssignedAgentRepository extends JpaRepository<ManagerAssignedAgent, Long> {
     List<ManagerAssignedAgent> findByManager(User manager);
 
+    @Query("SELECT m FROM ManagerAssignedAgent m JOIN FETCH m.agent WHERE m.manager.id = :managerId")
+    List<ManagerAssignedAgent> findByManagerIdWithAgent(Long managerId);
+
     List<ManagerAssignedAgent> findByAgent(User agent);
 
+    @Query("SELECT m.agent.id FROM ManagerAssignedAgent m WHERE m.manager.id = :managerId")
+    List<Long> findAgentIdsByManagerId(Long managerId);
+
+    @Query("SELECT m.manager.id FROM ManagerAssignedAgent m WHERE m.agent.id = :agentId")
+    List<Long> findManagerIdsByAgentId(Long agentId);
+
+    @Query("SELECT m.agent.id, m.manager.id FROM ManagerAssignedAgent m")
+    List<Object[]> findAllAgentManagerIds();
+
     Optional<ManagerAssignedAgent> findByManagerAndAgent(User manager, User agent);
 
     Optional<ManagerAssignedAgent> findByManagerAndIsLeaderTrue(User manager);
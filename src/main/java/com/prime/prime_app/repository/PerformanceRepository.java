@@ -1,5 +1,6 @@
 package com.prime.prime_app.repository;
 
+import com.prime.prime_app.dto.performance.TeamMetrics;
 import com.prime.prime_app.entities.Performance;
 import com.prime.prime_app.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,33 +19,35 @@ public interface PerformanceRepository extends JpaRepository<Performance, Long>
     @Query("SELECT p FROM Performance p WHERE p.agent = :agent AND p.periodStart <= :endDate AND p.periodEnd >= :startDate")
     List<Performance> findByAgentAndDateRange(User agent, LocalDateTime startDate, LocalDateTime endDate);
     
+    /**
+     * All team metrics in one round trip, as a single row
+     */
     @Query(value = """
-        SELECT 'totalClients' as metric, COUNT(DISTINCT c.id) as value
-        FROM clients c
-        JOIN users u ON c.agent_id = u.id
-        WHERE u.manager_id = :managerId
-        AND c.time_of_interaction BETWEEN :startDate AND :endDate
-        UNION ALL
-        SELECT 'activeAgents' as metric, COUNT(DISTINCT a.agent_id) as value
-        FROM attendances a
-        JOIN users u ON a.agent_id = u.id
-        WHERE u.manager_id = :managerId
-        AND a.check_in_time BETWEEN :startDate AND :endDate
-        UNION ALL
-        SELECT 'avgClientsPerDay' as metric, COALESCE(CAST(AVG(client_count) AS SIGNED), 0) as value
-        FROM (
-            SELECT DATE(a.check_in_time) as check_date, a.agent_id, 
-                   COUNT(DISTINCT c.id) as client_count
-            FROM attendances a
-            JOIN users u ON a.agent_id = u.id
-            LEFT JOIN clients c ON c.agent_id = a.agent_id 
-                AND DATE(c.time_of_interaction) = DATE(a.check_in_time)
-            WHERE u.manager_id = :managerId
-            AND a.check_in_time BETWEEN :startDate AND :endDate
-            GROUP BY DATE(a.check_in_time), a.agent_id
-        ) daily_counts
+        SELECT
+            (SELECT COUNT(DISTINCT c.id)
+             FROM clients c
+             JOIN users u ON c.agent_id = u.id
+             WHERE u.manager_id = :managerId
+             AND c.time_of_interaction BETWEEN :startDate AND :endDate) AS totalClients,
+            (SELECT COUNT(DISTINCT a.agent_id)
+             FROM attendances a
+             JOIN users u ON a.agent_id = u.id
+             WHERE u.manager_id = :managerId
+             AND a.check_in_time BETWEEN :startDate AND :endDate) AS activeAgents,
+            (SELECT COALESCE(CAST(AVG(daily_counts.client_count) AS SIGNED), 0)
+             FROM (
+                 SELECT DATE(a.check_in_time) as check_date, a.agent_id,
+                        COUNT(DISTINCT c.id) as client_count
+                 FROM attendances a
+                 JOIN users u ON a.agent_id = u.id
+                 LEFT JOIN clients c ON c.agent_id = a.agent_id
+                     AND DATE(c.time_of_interaction) = DATE(a.check_in_time)
+                 WHERE u.manager_id = :managerId
+                 AND a.check_in_time BETWEEN :startDate AND :endDate
+                 GROUP BY DATE(a.check_in_time), a.agent_id
+             ) daily_counts) AS avgClientsPerDay
         """, nativeQuery = true)
-    Map<String, Integer> getTeamPerformanceMetrics(Long managerId, LocalDateTime startDate, LocalDateTime endDate);
+    TeamMetrics getTeamPerformanceMetrics(Long managerId, LocalDateTime startDate, LocalDateTime endDate);
     
     @Query("""
         SELECT NEW map(
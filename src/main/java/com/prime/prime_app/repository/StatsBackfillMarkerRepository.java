@@ -0,0 +1,9 @@
+package com.prime.prime_app.repository;
+
+import com.prime.prime_app.entities.StatsBackfillMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StatsBackfillMarkerRepository extends JpaRepository<StatsBackfillMarker, String> {
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +22,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByNationalId(String nationalId);
     Optional<User> findByPhoneNumber(String phoneNumber);
     
+    // Values from the given set that are already taken, for set-based uniqueness checks
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT u.workId FROM User u WHERE u.workId IN :workIds")
+    List<String> findExistingWorkIds(Collection<String> workIds);
+
+    @Query("SELECT u.nationalId FROM User u WHERE u.nationalId IN :nationalIds")
+    List<String> findExistingNationalIds(Collection<String> nationalIds);
+
+    @Query("SELECT u.phoneNumber FROM User u WHERE u.phoneNumber IN :phoneNumbers")
+    List<String> findExistingPhoneNumbers(Collection<String> phoneNumbers);
+
+    @Query("SELECT u.workId, u.id FROM User u WHERE u.workId IN :workIds AND u.role.name = 'ROLE_AGENT'")
+    List<Object[]> findAgentIdsByWorkIds(Collection<String> workIds);
+
     @Query("SELECT u FROM User u WHERE u.role.name = 'ROLE_AGENT'")
     List<User> findAllAgents();
     
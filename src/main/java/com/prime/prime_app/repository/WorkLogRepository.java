@@ -3,6 +3,7 @@ package com.prime.prime_app.repository;
 import com.prime.prime_app.entities.WorkLog;
 import com.prime.prime_app.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -16,6 +17,12 @@ public interface WorkLogRepository extends JpaRepository<WorkLog, Long> {
     
     List<WorkLog> findByAgent(User agent);
     
+    @Query("SELECT w FROM WorkLog w WHERE w.date BETWEEN ?1 AND ?2")
+    List<WorkLog> findByDateRange(LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT MIN(w.date) FROM WorkLog w")
+    LocalDate findEarliestDate();
+    
     @Query("SELECT w FROM WorkLog w WHERE w.agent.id IN (SELECT ma.agent.id FROM ManagerAssignedAgent ma WHERE ma.manager = ?1)")
     List<WorkLog> findByManager(User manager);
     
@@ -32,4 +39,8 @@ public interface WorkLogRepository extends JpaRepository<WorkLog, Long> {
            "(SELECT ma.agent.id FROM ManagerAssignedAgent ma WHERE ma.manager = ?1) " +
            "AND w.date = CURRENT_DATE AND w.status = 'WORKED'")
     Long countTodayWorkByManagerTeam(User manager);
-} 
\ No newline at end of file
+    
+    @Modifying
+    @Query("UPDATE WorkLog w SET w.clientsServed = w.clientsServed + :count, w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :id")
+    int incrementClientsServed(Long id, int count);
+}
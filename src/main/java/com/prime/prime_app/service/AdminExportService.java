@@ -0,0 +1,258 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.enums.ExportFormat;
+import com.prime.prime_app.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports every manager's clients in one ZIP, one file per manager.
+ * <p>
+ * Each manager is a partition rendered on a small bounded pool into a temp file under
+ * {@code ${file.upload-dir}/admin-exports}, streaming from its own cursor. The response
+ * thread copies finished partitions into the ZIP in manager order and deletes them, and
+ * only a window of twice the pool size is rendered ahead, so memory stays flat and the
+ * temp disk use is bounded whatever the number of managers.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminExportService {
+    private final UserRepository userRepository;
+    private final ClientExportService clientExportService;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.exports.admin.pool-size:0}")
+    private int configuredPoolSize;
+
+    @Value("${app.exports.admin.max-concurrent:1}")
+    private int maxConcurrent;
+
+    private Path workDir;
+    private int poolSize;
+    private int window;
+    private Semaphore running;
+    private ThreadPoolExecutor executor;
+
+    private record Partition(User manager, Path file, CompletableFuture<Path> result) {
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            workDir = Paths.get(uploadDir, "admin-exports").toAbsolutePath().normalize();
+            Files.createDirectories(workDir);
+            // Partitions left behind by a previous run are never collected
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(workDir)) {
+                leftovers.forEach(AdminExportService::deleteQuietly);
+            }
+        } catch (IOException e) {
+            log.error("Could not create admin export directory: {}", e.getMessage(), e);
+            throw new RuntimeException("Could not initialize admin export storage", e);
+        }
+
+        // Every partition holds a database connection while it renders, so stay well below the pool
+        poolSize = configuredPoolSize > 0
+                ? configuredPoolSize
+                : Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        window = poolSize * 2;
+        running = new Semaphore(maxConcurrent);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(window * maxConcurrent),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "admin-export-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reserve an export slot now, so a busy server answers 429 before any bytes are sent,
+     * and return the body that writes the ZIP. The slot is released once, when the body
+     * finishes or when the async request completes, so a body that never runs (timeout,
+     * rejected task, client gone) does not hold it for good.
+     */
+    public StreamingResponseBody prepareExport(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format) {
+        if (!running.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "An admin export is already running; try again when it finishes");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                running.release();
+            }
+        };
+        releaseOnRequestCompletion(release);
+        return out -> {
+            try {
+                writeZip(startDate, endDate, format, out);
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    private static void releaseOnRequestCompletion(Runnable release) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(
+                AdminExportService.class.getName(), new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        release.run();
+                    }
+                });
+    }
+
+    private void writeZip(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format,
+                          OutputStream out) throws IOException {
+        List<User> managers = userRepository.findAllManagers().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
+        log.info("Exporting clients for {} managers as {} (pool {})", managers.size(), format, poolSize);
+
+        AtomicBoolean aborted = new AtomicBoolean();
+        Iterator<User> pending = managers.iterator();
+        Deque<Partition> inFlight = new ArrayDeque<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Most formats are already compressed, so favour speed
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            while (pending.hasNext() && inFlight.size() < window) {
+                inFlight.add(submit(pending.next(), startDate, endDate, format, aborted));
+            }
+            while (!inFlight.isEmpty()) {
+                Partition partition = inFlight.poll();
+                writeEntry(zip, partition, format);
+                if (pending.hasNext()) {
+                    inFlight.add(submit(pending.next(), startDate, endDate, format, aborted));
+                }
+            }
+            zip.finish();
+            log.info("Admin export of {} managers completed", managers.size());
+        } catch (IOException | RuntimeException e) {
+            // Client went away or the export broke: stop rendering and clean up what is on disk
+            aborted.set(true);
+            inFlight.forEach(partition -> {
+                partition.result().cancel(true);
+                deleteQuietly(partition.file());
+            });
+            throw e;
+        }
+    }
+
+    private Partition submit(User manager, LocalDateTime startDate, LocalDateTime endDate,
+                             ExportFormat format, AtomicBoolean aborted) {
+        Path file = workDir.resolve("manager-" + manager.getId() + "-" + System.nanoTime() + ".part");
+        CompletableFuture<Path> result = CompletableFuture.supplyAsync(() -> {
+            try (OutputStream partOut = Files.newOutputStream(file)) {
+                clientExportService.exportTeamClients(manager.getId(), startDate, endDate, format, partOut);
+            } catch (IOException e) {
+                deleteQuietly(file);
+                throw new CompletionException(e);
+            } catch (RuntimeException e) {
+                deleteQuietly(file);
+                throw e;
+            }
+            if (aborted.get()) {
+                // Nobody will collect this partition any more
+                deleteQuietly(file);
+            }
+            return file;
+        }, executor);
+        return new Partition(manager, file, result);
+    }
+
+    private void writeEntry(ZipOutputStream zip, Partition partition, ExportFormat format) throws IOException {
+        User manager = partition.manager();
+        String baseName = "manager_" + manager.getId() + "_" + safeName(manager.getName());
+        Path file;
+        try {
+            file = partition.result().join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Admin export partition for manager {} failed: {}", manager.getId(), cause.getMessage(), cause);
+            // Keep the archive usable and make the gap visible
+            zip.putNextEntry(new ZipEntry(baseName + "_FAILED.txt"));
+            zip.write(("Export failed for manager " + manager.getId() + ": " + cause.getMessage())
+                    .getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            return;
+        }
+
+        try {
+            zip.putNextEntry(new ZipEntry(baseName + "." + format.getExtension()));
+            Files.copy(file, zip);
+            zip.closeEntry();
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private static String safeName(String name) {
+        if (name == null || name.isBlank()) {
+            return "unnamed";
+        }
+        return name.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete admin export file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.prime.prime_app.dto.admin.ManagerResponse;
 import com.prime.prime_app.entities.ManagerAssignedAgent;
 import com.prime.prime_app.entities.Role;
 import com.prime.prime_app.entities.User;
+import com.prime.prime_app.repository.AgentDailyStatsRepository;
 import com.prime.prime_app.repository.ManagerAssignedAgentRepository;
 import com.prime.prime_app.repository.RoleRepository;
 import com.prime.prime_app.repository.UserRepository;
@@ -34,6 +35,8 @@ public class AdminService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthService authService;
+    private final AgentDailyStatsRepository agentDailyStatsRepository;
+    private final DashboardCacheService dashboardCacheService;
 
     private static final Logger log = LoggerFactory.getLogger(AdminService.class);
 
@@ -171,11 +174,13 @@ public class AdminService {
         for (ManagerAssignedAgent assignment : assignments) {
             User agent = assignment.getAgent();
             managerAssignedAgentRepository.delete(assignment);
+            agentDailyStatsRepository.deleteByAgent(agent);
             userRepository.delete(agent);
         }
         
         // Delete manager
         userRepository.delete(manager);
+        dashboardCacheService.teamChanged(managerId);
         
         return ManagerResponse.builder()
                 .status("Manager and associated agents removed successfully")
@@ -0,0 +1,101 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.repository.ManagerAssignedAgentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of which managers each agent is assigned to, so write paths can
+ * check an agent's assignment without reading manager_assigned_agents.
+ * <p>
+ * Loaded once the application is ready, then kept current from the
+ * {@link DashboardCacheService.TeamChangedEvent} that every assignment change already
+ * publishes after commit: the changed manager's agents are re-read and reconciled.
+ * An agent not found in the map is looked up in the database, so an assignment made
+ * just before its event arrives is never refused. That lookup is only cached when no
+ * team change was handled while it ran; otherwise it may hold an assignment that the
+ * change has already removed, and the next check simply asks the database again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AgentAssignmentCacheService {
+    private final ManagerAssignedAgentRepository managerAssignmentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Set<Long>> managersByAgent = new ConcurrentHashMap<>();
+    // Bumped before each reconcile, so a database lookup can tell it raced with one
+    private final AtomicLong teamChanges = new AtomicLong();
+    private TransactionTemplate readOnlyTx;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        // Events arrive after commit, while the committed transaction is still bound
+        readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        List<Object[]> rows = readOnlyTx.execute(status -> managerAssignmentRepository.findAllAgentManagerIds());
+        if (rows == null) {
+            return;
+        }
+        for (Object[] row : rows) {
+            managersByAgent.computeIfAbsent((Long) row[0], id -> ConcurrentHashMap.newKeySet()).add((Long) row[1]);
+        }
+        log.info("Loaded manager assignments for {} agents", managersByAgent.size());
+    }
+
+    public boolean isAssigned(Long agentId) {
+        Set<Long> managerIds = managersByAgent.get(agentId);
+        if (managerIds != null && !managerIds.isEmpty()) {
+            return true;
+        }
+        long generation = teamChanges.get();
+        List<Long> fromDatabase = readOnlyTx.execute(status -> managerAssignmentRepository.findManagerIdsByAgentId(agentId));
+        if (fromDatabase == null || fromDatabase.isEmpty()) {
+            return false;
+        }
+        if (teamChanges.get() == generation) {
+            managersByAgent.computeIfAbsent(agentId, id -> ConcurrentHashMap.newKeySet()).addAll(fromDatabase);
+            // A reconcile that started between the check and the put may have missed it
+            if (teamChanges.get() != generation) {
+                managersByAgent.remove(agentId);
+            }
+        }
+        return true;
+    }
+
+    @EventListener
+    public void onTeamChanged(DashboardCacheService.TeamChangedEvent event) {
+        Long managerId = event.managerId();
+        teamChanges.incrementAndGet();
+        List<Long> agentIds = readOnlyTx.execute(status -> managerAssignmentRepository.findAgentIdsByManagerId(managerId));
+        Set<Long> current = agentIds != null ? new HashSet<>(agentIds) : Set.of();
+
+        managersByAgent.forEach((agentId, managerIds) -> {
+            if (!current.contains(agentId)) {
+                managerIds.remove(managerId);
+            }
+        });
+        current.forEach(agentId ->
+                managersByAgent.computeIfAbsent(agentId, id -> ConcurrentHashMap.newKeySet()).add(managerId));
+        managersByAgent.values().removeIf(Set::isEmpty);
+    }
+}
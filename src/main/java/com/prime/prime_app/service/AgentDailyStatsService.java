@@ -0,0 +1,242 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.entities.AgentDailyStats;
+import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.entities.WorkLog;
+import com.prime.prime_app.repository.AgentDailyStatsRepository;
+import com.prime.prime_app.repository.AttendanceRepository;
+import com.prime.prime_app.repository.ClientRepository;
+import com.prime.prime_app.repository.UserRepository;
+import com.prime.prime_app.repository.WorkLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the agent_daily_stats rollup. The record* methods join the caller's
+ * transaction so the rollup commits (or rolls back) together with the write it
+ * describes, and expect that write to be stored already: a row they create is
+ * seeded from the source tables, which then include it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AgentDailyStatsService {
+    private final AgentDailyStatsRepository statsRepository;
+    private final ClientRepository clientRepository;
+    private final WorkLogRepository workLogRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public void recordClient(User agent, LocalDate date, Client.InsuranceType insuranceType) {
+        LockedStats locked = lockOrCreate(agent, date);
+        AgentDailyStats stats = locked.stats();
+        // A freshly seeded row already counts this client
+        if (!locked.seeded()) {
+            stats.setClientCount(stats.getClientCount() + 1);
+            if (insuranceType != null) {
+                stats.addInsuranceType(insuranceType.name());
+            }
+        }
+        statsRepository.save(stats);
+    }
+
+    /**
+     * Record several clients for one agent and day with a single rollup update,
+     * for bulk inserts
+     */
+    @Transactional
+    public void recordClients(User agent, LocalDate date, int count, Collection<String> insuranceTypes) {
+        LockedStats locked = lockOrCreate(agent, date);
+        AgentDailyStats stats = locked.stats();
+        if (!locked.seeded()) {
+            stats.setClientCount(stats.getClientCount() + count);
+            insuranceTypes.forEach(stats::addInsuranceType);
+        }
+        statsRepository.save(stats);
+    }
+
+    @Transactional
+    public void recordWorkLog(User agent, WorkLog workLog) {
+        AgentDailyStats stats = lockOrCreate(agent, workLog.getDate()).stats();
+        stats.setWorkStatus(workLog.getStatus());
+        stats.setSector(workLog.getSector());
+        stats.setCheckedIn(true);
+        statsRepository.save(stats);
+    }
+
+    @Transactional
+    public void recordCheckIn(User agent, LocalDate date) {
+        AgentDailyStats stats = lockOrCreate(agent, date).stats();
+        stats.setCheckedIn(true);
+        statsRepository.save(stats);
+    }
+
+    /**
+     * Load an agent's rollup rows for a date range, keyed by day. Days without
+     * activity have no row.
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, AgentDailyStats> getStatsByDate(User agent, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, AgentDailyStats> result = new HashMap<>();
+        for (AgentDailyStats stats : statsRepository.findByAgentAndDateRange(agent, startDate, endDate)) {
+            result.put(stats.getStatDate(), stats);
+        }
+        return result;
+    }
+
+    /**
+     * Create rollup rows for (agent, day) pairs in the range that have activity
+     * in clients, work_logs or attendances but no rollup row yet. Rows that
+     * already exist, including ones a live write creates while this runs, are
+     * maintained incrementally and are left untouched.
+     *
+     * @return number of rows created
+     */
+    @Transactional
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        Set<String> existing = new HashSet<>();
+        for (Object[] row : statsRepository.findKeysByDateRange(startDate, endDate)) {
+            existing.add(key((Long) row[0], (LocalDate) row[1]));
+        }
+
+        Map<String, AgentDailyStats> missing = new HashMap<>();
+
+        for (Object[] row : clientRepository.countByAgentDayAndInsuranceType(
+                startDate.atStartOfDay(), endDate.atTime(23, 59, 59))) {
+            AgentDailyStats stats = pending(missing, existing, (Long) row[0], toLocalDate(row[1]));
+            if (stats != null) {
+                stats.setClientCount(stats.getClientCount() + ((Number) row[3]).intValue());
+                if (row[2] != null) {
+                    stats.addInsuranceType(row[2].toString());
+                }
+            }
+        }
+
+        for (WorkLog workLog : workLogRepository.findByDateRange(startDate, endDate)) {
+            AgentDailyStats stats = pending(missing, existing, workLog.getAgent().getId(), workLog.getDate());
+            if (stats != null) {
+                stats.setWorkStatus(workLog.getStatus());
+                stats.setSector(workLog.getSector());
+                stats.setCheckedIn(true);
+            }
+        }
+
+        for (Object[] row : attendanceRepository.findAgentCheckInDays(
+                startDate.atStartOfDay(), endDate.atTime(23, 59, 59))) {
+            AgentDailyStats stats = pending(missing, existing, (Long) row[0], toLocalDate(row[1]));
+            if (stats != null) {
+                stats.setCheckedIn(true);
+            }
+        }
+
+        int created = 0;
+        for (AgentDailyStats stats : missing.values()) {
+            created += statsRepository.insertBackfilled(stats.getAgent().getId(), stats.getStatDate(),
+                    stats.getClientCount(), stats.getInsuranceTypes(), stats.getSector(), stats.isCheckedIn(),
+                    stats.getWorkStatus() != null ? stats.getWorkStatus().name() : null);
+        }
+        return created;
+    }
+
+    /**
+     * First day with any client, work log or attendance, or null when there is no
+     * activity at all
+     */
+    @Transactional(readOnly = true)
+    public LocalDate findEarliestActivityDate() {
+        LocalDate earliest = workLogRepository.findEarliestDate();
+        LocalDateTime firstClient = clientRepository.findEarliestInteraction();
+        if (firstClient != null && (earliest == null || firstClient.toLocalDate().isBefore(earliest))) {
+            earliest = firstClient.toLocalDate();
+        }
+        LocalDateTime firstCheckIn = attendanceRepository.findEarliestCheckIn();
+        if (firstCheckIn != null && (earliest == null || firstCheckIn.toLocalDate().isBefore(earliest))) {
+            earliest = firstCheckIn.toLocalDate();
+        }
+        return earliest;
+    }
+
+    /**
+     * Convert the value of a DATE(...) projection to a LocalDate, whatever type
+     * the JDBC driver handed back.
+     */
+    public static LocalDate toLocalDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        if (value instanceof java.util.Date date) {
+            return new java.sql.Date(date.getTime()).toLocalDate();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    private LockedStats lockOrCreate(User agent, LocalDate date) {
+        // Upsert first, so two writers for a new day never both try to insert it
+        boolean created = statsRepository.insertIfAbsent(agent.getId(), date) > 0;
+        AgentDailyStats stats = statsRepository.findForUpdate(agent.getId(), date)
+                .orElseThrow(() -> new IllegalStateException(
+                        "agent_daily_stats row missing for agent " + agent.getId() + " on " + date));
+        if (created) {
+            // The day may have activity from before the row existed (not backfilled yet);
+            // starting from zero would lose it for good
+            seed(stats, agent, date);
+        }
+        return new LockedStats(stats, created);
+    }
+
+    private void seed(AgentDailyStats stats, User agent, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        for (Object[] row : clientRepository.countByAgentAndInsuranceType(agent.getId(), start, date.atTime(23, 59, 59))) {
+            stats.setClientCount(stats.getClientCount() + ((Number) row[1]).intValue());
+            if (row[0] != null) {
+                stats.addInsuranceType(row[0].toString());
+            }
+        }
+        workLogRepository.findByAgentAndDate(agent, date).ifPresent(workLog -> {
+            stats.setWorkStatus(workLog.getStatus());
+            stats.setSector(workLog.getSector());
+            stats.setCheckedIn(true);
+        });
+        if (attendanceRepository.existsByAgentAndCheckInTimeBetween(agent, start, date.plusDays(1).atStartOfDay())) {
+            stats.setCheckedIn(true);
+        }
+    }
+
+    private AgentDailyStats pending(Map<String, AgentDailyStats> missing, Set<String> existing,
+                                    Long agentId, LocalDate date) {
+        String key = key(agentId, date);
+        if (existing.contains(key)) {
+            return null;
+        }
+        return missing.computeIfAbsent(key, k -> AgentDailyStats.builder()
+                .agent(userRepository.getReferenceById(agentId))
+                .statDate(date)
+                .build());
+    }
+
+    private static String key(Long agentId, LocalDate date) {
+        return agentId + ":" + date;
+    }
+
+    private record LockedStats(AgentDailyStats stats, boolean seeded) {
+    }
+}
@@ -0,0 +1,287 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.manager.AgentManagementRequest;
+import com.prime.prime_app.dto.manager.BatchAgentResponse;
+import com.prime.prime_app.entities.Role;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.exception.ResourceNotFoundException;
+import com.prime.prime_app.repository.RoleRepository;
+import com.prime.prime_app.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many agents under one manager at once.
+ * <p>
+ * The whole batch is checked against the database with one {@code IN (...)} query per
+ * unique column, users and their manager assignments are written with JDBC batching,
+ * and each row gets its own result so one bad row does not sink the rest. If a
+ * concurrent writer takes a value between the check and the insert, the batch falls
+ * back to inserting row by row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AgentOnboardingService {
+    private static final String INSERT_USER_SQL = "INSERT INTO users (first_name, last_name, name, email, work_id, " +
+            "username, national_id, phone_number, role_id, manager_id, enabled, account_non_expired, " +
+            "account_non_locked, credentials_non_expired, is_agent_leader, login_attempts, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, true, true, true, false, 0, ?, ?)";
+
+    private static final String INSERT_ASSIGNMENT_SQL = "INSERT INTO manager_assigned_agents " +
+            "(manager_id, agent_id, is_leader, created_at, updated_at) VALUES (?, ?, false, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final DashboardCacheService dashboardCacheService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.agents.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${app.clients.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    private TransactionTemplate tx;
+
+    private record Row(int index, AgentManagementRequest request) {
+    }
+
+    @PostConstruct
+    public void init() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    public BatchAgentResponse onboardAgents(Long managerId, List<AgentManagementRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchSize + " agents can be added in one batch");
+        }
+        long startedAt = System.currentTimeMillis();
+        User manager = userRepository.findById(managerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Manager not found"));
+        Role agentRole = roleRepository.findByName(Role.RoleType.ROLE_AGENT)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent role not found"));
+
+        BatchAgentResponse.AgentResult[] results = new BatchAgentResponse.AgentResult[requests.size()];
+        List<Row> candidates = validate(requests, results);
+        List<Row> accepted = rejectTaken(candidates, results);
+
+        if (!accepted.isEmpty()) {
+            try {
+                tx.executeWithoutResult(status -> insertRows(manager, agentRole, accepted, results));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch onboarding for manager {} hit a unique key, retrying row by row: {}",
+                        managerId, e.getMostSpecificCause().getMessage());
+                accepted.forEach(row -> insertAlone(manager, agentRole, row, results));
+            }
+        }
+
+        int created = 0;
+        for (BatchAgentResponse.AgentResult result : results) {
+            if (result.getStatus() == BatchAgentResponse.Status.CREATED) {
+                created++;
+            }
+        }
+        if (created > 0) {
+            dashboardCacheService.teamChanged(managerId);
+        }
+        log.info("Onboarded {} of {} agents for manager {} in {} ms", created, requests.size(), managerId,
+                System.currentTimeMillis() - startedAt);
+
+        return BatchAgentResponse.builder()
+                .created(created)
+                .failed(requests.size() - created)
+                .results(List.of(results))
+                .build();
+    }
+
+    /**
+     * Bean validation per row plus duplicates inside the batch itself
+     */
+    private List<Row> validate(List<AgentManagementRequest> requests, BatchAgentResponse.AgentResult[] results) {
+        Set<String> emails = new HashSet<>();
+        Set<String> workIds = new HashSet<>();
+        Set<String> nationalIds = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        List<Row> rows = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            AgentManagementRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = failed(i, null, "Agent details are required");
+                continue;
+            }
+            Set<ConstraintViolation<AgentManagementRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                results[i] = failed(i, request.getWorkId(), message);
+                continue;
+            }
+
+            String duplicate = null;
+            if (!emails.add(normalize(request.getEmail()))) {
+                duplicate = "Email is repeated in this batch";
+            } else if (!workIds.add(normalize(request.getWorkId()))) {
+                duplicate = "Work ID is repeated in this batch";
+            } else if (!nationalIds.add(normalize(request.getNationalId()))) {
+                duplicate = "National ID is repeated in this batch";
+            } else if (!phoneNumbers.add(normalize(request.getPhoneNumber()))) {
+                duplicate = "Phone number is repeated in this batch";
+            }
+            if (duplicate != null) {
+                results[i] = failed(i, request.getWorkId(), duplicate);
+                continue;
+            }
+            rows.add(new Row(i, request));
+        }
+        return rows;
+    }
+
+    /**
+     * One IN query per unique column for the whole batch
+     */
+    private List<Row> rejectTaken(List<Row> rows, BatchAgentResponse.AgentResult[] results) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> emails = findTaken(rows, AgentManagementRequest::getEmail, userRepository::findExistingEmails);
+        Set<String> workIds = findTaken(rows, AgentManagementRequest::getWorkId, userRepository::findExistingWorkIds);
+        Set<String> nationalIds = findTaken(rows, AgentManagementRequest::getNationalId,
+                userRepository::findExistingNationalIds);
+        Set<String> phoneNumbers = findTaken(rows, AgentManagementRequest::getPhoneNumber,
+                userRepository::findExistingPhoneNumbers);
+
+        List<Row> accepted = new ArrayList<>();
+        for (Row row : rows) {
+            AgentManagementRequest request = row.request();
+            String message = null;
+            if (emails.contains(normalize(request.getEmail()))) {
+                message = "Email already exists";
+            } else if (workIds.contains(normalize(request.getWorkId()))) {
+                message = "Work ID already exists";
+            } else if (nationalIds.contains(normalize(request.getNationalId()))) {
+                message = "National ID already exists";
+            } else if (phoneNumbers.contains(normalize(request.getPhoneNumber()))) {
+                message = "Phone number already exists";
+            }
+            if (message != null) {
+                results[row.index()] = failed(row.index(), request.getWorkId(), message);
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private void insertRows(User manager, Role agentRole, List<Row> rows, BatchAgentResponse.AgentResult[] results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, jdbcBatchSize, (ps, row) -> {
+            AgentManagementRequest request = row.request();
+            ps.setString(1, request.getFirstName());
+            ps.setString(2, request.getLastName());
+            ps.setString(3, request.getFirstName() + " " + request.getLastName());
+            ps.setString(4, request.getEmail());
+            ps.setString(5, request.getWorkId());
+            // Email doubles as the username, as for agents created one at a time
+            ps.setString(6, request.getEmail());
+            ps.setString(7, request.getNationalId());
+            ps.setString(8, request.getPhoneNumber());
+            ps.setLong(9, agentRole.getId());
+            ps.setLong(10, manager.getId());
+            ps.setTimestamp(11, now);
+            ps.setTimestamp(12, now);
+        });
+
+        // batchUpdate cannot hand back generated keys, so read them back by work ID
+        Map<String, Long> ids = new HashMap<>();
+        userRepository.findAgentIdsByWorkIds(rows.stream().map(row -> row.request().getWorkId()).toList())
+                .forEach(pair -> ids.put(normalize((String) pair[0]), (Long) pair[1]));
+
+        List<Long> agentIds = rows.stream()
+                .map(row -> ids.get(normalize(row.request().getWorkId())))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT_SQL, agentIds, jdbcBatchSize, (ps, agentId) -> {
+            ps.setLong(1, manager.getId());
+            ps.setLong(2, agentId);
+            ps.setTimestamp(3, now);
+            ps.setTimestamp(4, now);
+        });
+
+        for (Row row : rows) {
+            results[row.index()] = BatchAgentResponse.AgentResult.builder()
+                    .index(row.index())
+                    .workId(row.request().getWorkId())
+                    .status(BatchAgentResponse.Status.CREATED)
+                    .agentId(ids.get(normalize(row.request().getWorkId())))
+                    .build();
+        }
+    }
+
+    private void insertAlone(User manager, Role agentRole, Row row, BatchAgentResponse.AgentResult[] results) {
+        try {
+            tx.executeWithoutResult(status -> insertRows(manager, agentRole, List.of(row), results));
+        } catch (DataIntegrityViolationException e) {
+            results[row.index()] = failed(row.index(), row.request().getWorkId(),
+                    "Email, work ID, national ID or phone number already exists");
+        }
+    }
+
+    private Set<String> findTaken(List<Row> rows, Function<AgentManagementRequest, String> column,
+                                  Function<Collection<String>, List<String>> query) {
+        List<String> values = rows.stream()
+                .map(row -> column.apply(row.request()))
+                .distinct()
+                .toList();
+        return query.apply(values).stream()
+                .map(AgentOnboardingService::normalize)
+                .collect(Collectors.toSet());
+    }
+
+    // MySQL's default collation compares unique values case-insensitively
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static BatchAgentResponse.AgentResult failed(int index, String workId, String message) {
+        return BatchAgentResponse.AgentResult.builder()
+                .index(index)
+                .workId(workId)
+                .status(BatchAgentResponse.Status.FAILED)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,217 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.client.ClientExportRow;
+import com.prime.prime_app.entities.AgentDailyReport;
+import com.prime.prime_app.entities.ReportStatus;
+import com.prime.prime_app.repository.AgentDailyReportRepository;
+import com.prime.prime_app.repository.ClientRepository;
+import com.prime.prime_app.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders agent daily report PDFs off the request path.
+ * <p>
+ * Requests only record a {@link ReportStatus#PENDING} report; rendering happens on a
+ * small bounded pool and covers just that day's clients. A batch just after midnight
+ * queues a report for every agent who logged clients the day before, once that day
+ * can no longer change, and a periodic sweep picks up anything
+ * still pending, including reports that did not fit in the queue or were left behind
+ * by a restart. No database connection is held while iText runs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AgentReportRenderService {
+    private final AgentDailyReportRepository reportRepository;
+    private final ClientRepository clientRepository;
+    private final UserRepository userRepository;
+    private final ReportExportService reportExportService;
+    private final FileStorageService fileStorageService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.reports.daily.pool-size:2}")
+    private int poolSize;
+
+    @Value("${app.reports.daily.queue-capacity:100}")
+    private int queueCapacity;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate tx;
+    private TransactionTemplate readOnlyTx;
+
+    private record ReportTarget(Long agentId, String workId, LocalDate date) {
+    }
+
+    @PostConstruct
+    public void init() {
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "daily-report-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a pending report for rendering once the current transaction commits
+     */
+    public void enqueueAfterCommit(Long reportId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(reportId);
+                }
+            });
+        } else {
+            enqueue(reportId);
+        }
+    }
+
+    /**
+     * Queue a pending report for rendering. When the pool is saturated the report just
+     * stays PENDING and the next sweep submits it.
+     */
+    public void enqueue(Long reportId) {
+        if (!inFlight.add(reportId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> render(reportId));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(reportId);
+            log.debug("Daily report queue is full; report {} left for the next sweep", reportId);
+        }
+    }
+
+    @Scheduled(cron = "${app.reports.daily.batch-cron:0 5 0 * * *}")
+    public void renderEndOfDay() {
+        // Run after midnight so clients logged in the last minutes of the day are included
+        queueDay(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Mark a report PENDING for every agent with clients on {@code date}, creating the
+     * missing ones, and start rendering them
+     *
+     * @return The number of reports queued
+     */
+    public int queueDay(LocalDate date) {
+        Integer queued = tx.execute(status -> {
+            List<Long> agentIds = clientRepository.findAgentIdsWithClientsBetween(date.atStartOfDay(), date.atTime(23, 59, 59));
+            if (agentIds.isEmpty()) {
+                return 0;
+            }
+
+            Set<Long> existing = new HashSet<>(reportRepository.findAgentIdsByReportDate(date));
+            reportRepository.markPending(date, agentIds);
+            List<AgentDailyReport> created = agentIds.stream()
+                    .filter(agentId -> !existing.contains(agentId))
+                    .map(agentId -> AgentDailyReport.builder()
+                            .agent(userRepository.getReferenceById(agentId))
+                            .reportDate(date)
+                            .status(ReportStatus.PENDING)
+                            .build())
+                    .toList();
+            reportRepository.saveAll(created);
+            return agentIds.size();
+        });
+
+        log.info("Queued {} daily reports for {}", queued, date);
+        sweepPending();
+        return queued != null ? queued : 0;
+    }
+
+    /**
+     * Submit pending reports, as many as the queue has room for
+     */
+    @Scheduled(fixedDelayString = "${app.reports.daily.sweep-ms:60000}")
+    public void sweepPending() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<Long> pending = reportRepository.findIdsByStatus(ReportStatus.PENDING,
+                PageRequest.of(0, room + inFlight.size()));
+        pending.stream()
+                .filter(reportId -> !inFlight.contains(reportId))
+                .limit(room)
+                .forEach(this::enqueue);
+    }
+
+    private void render(Long reportId) {
+        try {
+            ReportTarget target = readOnlyTx.execute(status -> reportRepository.findById(reportId)
+                    .filter(report -> report.getStatus() == ReportStatus.PENDING)
+                    .map(report -> new ReportTarget(report.getAgent().getId(), report.getAgent().getWorkId(),
+                            report.getReportDate()))
+                    .orElse(null));
+            if (target == null) {
+                // Already rendered or removed since it was queued
+                return;
+            }
+
+            LocalDateTime start = target.date().atStartOfDay();
+            LocalDateTime end = target.date().atTime(23, 59, 59);
+            List<ClientExportRow> rows = clientRepository.findExportRowsByAgent(target.agentId(), start, end);
+
+            String pdfPath = null;
+            if (!rows.isEmpty()) {
+                String filename = String.format("%s_%s_Client_Report.pdf",
+                        target.workId(),
+                        target.date().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+                pdfPath = fileStorageService.storePdfReport(filename,
+                        out -> reportExportService.writeRowsToPdf(rows.stream(), out));
+            }
+
+            String storedPath = pdfPath;
+            tx.executeWithoutResult(status -> reportRepository.markReady(reportId, storedPath));
+            log.debug("Rendered daily report {} for agent {} ({} clients)", reportId, target.workId(), rows.size());
+        } catch (Exception e) {
+            log.error("Error generating PDF for daily report {}: {}", reportId, e.getMessage(), e);
+            try {
+                tx.executeWithoutResult(status -> reportRepository.markFailed(reportId));
+            } catch (RuntimeException ex) {
+                log.warn("Could not mark daily report {} as failed: {}", reportId, ex.getMessage());
+            }
+        } finally {
+            inFlight.remove(reportId);
+        }
+    }
+}
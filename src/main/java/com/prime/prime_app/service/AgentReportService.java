@@ -3,19 +3,15 @@ package com.prime.prime_app.service;
 import com.prime.prime_app.dto.agent.DailyReportRequest;
 import com.prime.prime_app.dto.agent.DailyReportResponse;
 import com.prime.prime_app.entities.AgentDailyReport;
-import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.entities.ReportStatus;
 import com.prime.prime_app.entities.User;
 import com.prime.prime_app.repository.AgentDailyReportRepository;
-import com.prime.prime_app.repository.ClientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,14 +21,13 @@ import java.util.Optional;
 public class AgentReportService {
 
     private final AgentDailyReportRepository reportRepository;
-    private final ClientRepository clientRepository;
-    private final ReportExportService reportExportService;
-    private final FileStorageService fileStorageService;
+    private final AgentReportRenderService renderService;
 
     /**
-     * Generate a daily report for an agent
+     * Request today's daily report for an agent. Only records the report as PENDING;
+     * the PDF is rendered in the background and the status moves to READY or FAILED.
      * @param agent The agent to generate a report for
-     * @return The generated report response
+     * @return The report response
      */
     @Transactional
     public DailyReportResponse generateDailyReport(User agent) {
@@ -42,42 +37,26 @@ public class AgentReportService {
         Optional<AgentDailyReport> existingReport = reportRepository.findByAgentAndReportDate(agent, today);
         if (existingReport.isPresent()) {
             AgentDailyReport report = existingReport.get();
-            return mapToResponse(report, "Report already generated for today");
+            if (report.getStatus() == ReportStatus.FAILED) {
+                // Give a failed render another try
+                report.setStatus(ReportStatus.PENDING);
+                report = reportRepository.save(report);
+                renderService.enqueueAfterCommit(report.getId());
+                return mapToResponse(report, "Report generation queued");
+            }
+            return mapToResponse(report, report.getStatus() == ReportStatus.PENDING
+                    ? "Report generation in progress"
+                    : "Report already generated for today");
         }
         
-        // Get all clients for today - FIXED: Instead of only getting today's clients, get all clients 
-        // associated with this agent to ensure we have data for the report
-        List<Client> clientsForReport = clientRepository.findByAgent(agent);
-        
-        // Create report entity (without PDF path for now)
-        AgentDailyReport report = AgentDailyReport.builder()
+        AgentDailyReport report = reportRepository.save(AgentDailyReport.builder()
                 .agent(agent)
                 .reportDate(today)
-                .build();
-
-        // If there are clients, generate PDF
-        String pdfPath = null;
-        if (!clientsForReport.isEmpty()) {
-            try {
-                // Generate PDF and save it
-                ByteArrayInputStream pdfStream = reportExportService.exportClientsToPdf(clientsForReport);
-                String filename = String.format("%s_%s_Client_Report.pdf", 
-                        agent.getWorkId(), 
-                        today.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-                
-                pdfPath = fileStorageService.storePdfReport(pdfStream, filename);
-                report.setPdfPath(pdfPath);
-            } catch (Exception e) {
-                log.error("Error generating PDF for agent {}: {}", agent.getWorkId(), e.getMessage(), e);
-                // Continue without PDF - we will still create a report entry
-            }
-        }
-        
-        // Save report
-        report = reportRepository.save(report);
+                .status(ReportStatus.PENDING)
+                .build());
+        renderService.enqueueAfterCommit(report.getId());
         
-        return mapToResponse(report, "Report generated successfully" + 
-                (pdfPath == null ? " (no clients found)" : ""));
+        return mapToResponse(report, "Report generation queued");
     }
     
     /**
@@ -100,32 +79,17 @@ public class AgentReportService {
         // Set comment
         report.setDailyComment(request.getComment());
         
-        // If report doesn't have a PDF and wasn't just created, try to generate one
-        if (report.getPdfPath() == null) {
-            // Get all clients for this agent
-            List<Client> clientsForReport = clientRepository.findByAgent(agent);
-            
-            // If there are clients, generate PDF
-            if (!clientsForReport.isEmpty()) {
-                try {
-                    // Generate PDF and save it
-                    ByteArrayInputStream pdfStream = reportExportService.exportClientsToPdf(clientsForReport);
-                    String filename = String.format("%s_%s_Client_Report.pdf", 
-                            agent.getWorkId(), 
-                            today.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-                    
-                    String pdfPath = fileStorageService.storePdfReport(pdfStream, filename);
-                    report.setPdfPath(pdfPath);
-                    log.info("Generated PDF during report submission for agent {}", agent.getWorkId());
-                } catch (Exception e) {
-                    log.error("Error generating PDF during report submission for agent {}: {}", agent.getWorkId(), e.getMessage(), e);
-                    // Continue without PDF - we will still create a report entry
-                }
-            }
+        // If the report has no PDF yet, queue one unless a render is already pending
+        boolean queueRender = report.getPdfPath() == null && report.getStatus() != ReportStatus.PENDING;
+        if (report.getId() == null || queueRender) {
+            report.setStatus(ReportStatus.PENDING);
         }
         
         // Save report
         report = reportRepository.save(report);
+        if (report.getStatus() == ReportStatus.PENDING) {
+            renderService.enqueueAfterCommit(report.getId());
+        }
         
         return mapToResponse(report, "Report submitted successfully");
     }
@@ -166,6 +130,8 @@ public class AgentReportService {
                 .id(report.getId())
                 .date(report.getReportDate())
                 .pdfPath(report.getPdfPath())
+                // Reports created before background rendering have no status but are complete
+                .status(report.getStatus() != null ? report.getStatus() : ReportStatus.READY)
                 .comment(report.getDailyComment())
                 .message(message)
                 .build();
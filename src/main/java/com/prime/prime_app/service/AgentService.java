@@ -1,11 +1,13 @@
 package com.prime.prime_app.service;
 
+import com.prime.prime_app.entities.AgentDailyStats;
 import com.prime.prime_app.entities.User;
 import com.prime.prime_app.entities.WorkLog;
 import com.prime.prime_app.entities.Client;
 import com.prime.prime_app.entities.PolicyStatus;
 import com.prime.prime_app.dto.agent.AttendanceRequest;
 import com.prime.prime_app.dto.agent.AttendanceResponse;
+import com.prime.prime_app.dto.agent.ClientEntryBatchResponse;
 import com.prime.prime_app.dto.agent.ClientEntryRequest;
 import com.prime.prime_app.dto.agent.ClientEntryResponse;
 import com.prime.prime_app.dto.agent.PerformanceReportResponse;
@@ -14,11 +16,13 @@ import com.prime.prime_app.exception.ResourceNotFoundException;
 import com.prime.prime_app.exception.ServiceException;
 import com.prime.prime_app.exception.ValidationException;
 import com.prime.prime_app.repository.ClientRepository;
-import com.prime.prime_app.repository.ManagerAssignedAgentRepository;
 import com.prime.prime_app.repository.UserRepository;
 import com.prime.prime_app.repository.WorkLogRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,21 +30,34 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AgentService {
+    // Rejection message for an entry whose national ID is taken; expected when a replay repeats stored entries
+    public static final String NATIONAL_ID_ALREADY_RECORDED = "A client with this national ID is already recorded";
+
     private final UserRepository userRepository;
     private final WorkLogRepository workLogRepository;
     private final ClientRepository clientRepository;
-    private final ManagerAssignedAgentRepository managerAssignedAgentRepository;
     private final AuthService authService;
+    private final AgentDailyStatsService agentDailyStatsService;
+    private final DashboardCacheService dashboardCacheService;
+    private final ClientBatchService clientBatchService;
+    private final WorkLogCounterService workLogCounterService;
+    private final AgentAssignmentCacheService agentAssignmentCacheService;
+    private final Validator validator;
+
+    @Value("${app.agents.client-entry.batch.max-size:500}")
+    private int maxClientEntryBatchSize;
 
     public boolean isAgentAssignedToManager(User agent) {
-        return managerAssignedAgentRepository.findByAgent(agent).size() > 0;
+        return agentAssignmentCacheService.isAssigned(agent.getId());
     }
 
     @Transactional
@@ -71,6 +88,8 @@ public class AgentService {
                 .build();
 
         workLogRepository.save(workLog);
+        agentDailyStatsService.recordWorkLog(agent, workLog);
+        dashboardCacheService.agentCheckedIn(agent);
 
         return AttendanceResponse.builder()
                 .status("Attendance submitted successfully")
@@ -90,26 +109,7 @@ public class AgentService {
             }
 
             LocalDate today = LocalDate.now();
-            Optional<WorkLog> workLogOpt = workLogRepository.findByAgentAndDate(agent, today);
-
-            WorkLog workLog;
-            if (workLogOpt.isEmpty()) {
-                log.info("No work log found for agent {}, creating one automatically", agent.getId());
-                workLog = WorkLog.builder()
-                        .agent(agent)
-                        .date(today)
-                        .status(WorkLog.WorkStatus.WORKED)
-                        .clientsServed(0)
-                        .location(request.getLocationOfClient())
-                        .sector("Auto-created")
-                        .checkInTime(LocalDateTime.now())
-                        .autoGenerated(true)
-                        .build();
-                workLog = workLogRepository.save(workLog);
-                log.info("Created new work log for agent {} with ID {}", agent.getId(), workLog.getId());
-            } else {
-                workLog = workLogOpt.get();
-            }
+            WorkLog workLog = findOrCreateWorkLog(agent, today, request.getLocationOfClient());
 
             LocalDate dateOfBirth = request.getDate_of_birth() != null ?
                     LocalDate.parse(request.getDate_of_birth()) :
@@ -140,8 +140,10 @@ public class AgentService {
 
             client = clientRepository.save(client);
 
-            workLog.setClientsServed(workLog.getClientsServed() + 1);
-            workLogRepository.save(workLog);
+            workLogCounterService.addClientsServed(workLog, 1);
+
+            agentDailyStatsService.recordClient(agent, client.getTimeOfInteraction().toLocalDate(), client.getInsuranceType());
+            dashboardCacheService.clientLogged(agent);
 
             log.info("Successfully logged client interaction for agent {} with client {}", agent.getId(), client.getId());
 
@@ -165,6 +167,162 @@ public class AgentService {
         }
     }
 
+    /**
+     * Log many client interactions at once, as sent by the app when it syncs entries
+     * captured offline. Entries are validated together: bad or duplicate entries are
+     * rejected individually, the rest are inserted in JDBC batches and today's work log
+     * is bumped once by the number saved.
+     */
+    @Transactional
+    public ClientEntryBatchResponse logClientInteractions(User agent, List<ClientEntryRequest> entries) {
+        if (agent == null || !agent.isEnabled()) {
+            throw new InvalidOperationException("Agent account is not active");
+        }
+        if (entries.size() > maxClientEntryBatchSize) {
+            throw new ValidationException("At most " + maxClientEntryBatchSize + " client entries can be synced at once");
+        }
+        if (!isAgentAssignedToManager(agent)) {
+            throw new InvalidOperationException("Agent is not assigned to any manager");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return saveClientEntries(agent, now.toLocalDate(), entries, Collections.nCopies(entries.size(), now));
+    }
+
+    /**
+     * Store client entries that were accepted earlier, e.g. from the ingest journal,
+     * keeping the time each one was taken. The agent was checked when the entries were
+     * accepted; entries whose national ID is already recorded are skipped, so replaying
+     * the same entries twice is harmless.
+     */
+    @Transactional
+    public ClientEntryBatchResponse replayClientInteractions(Long agentId, LocalDate workDate,
+                                                             List<ClientEntryRequest> entries,
+                                                             List<LocalDateTime> timesOfInteraction) {
+        User agent = userRepository.findById(agentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
+        return saveClientEntries(agent, workDate, entries, timesOfInteraction);
+    }
+
+    private ClientEntryBatchResponse saveClientEntries(User agent, LocalDate workDate, List<ClientEntryRequest> entries,
+                                                       List<LocalDateTime> timesOfInteraction) {
+        ClientEntryBatchResponse.EntryResult[] results = new ClientEntryBatchResponse.EntryResult[entries.size()];
+        Map<Integer, Client> candidates = new LinkedHashMap<>();
+        Set<String> nationalIds = new HashSet<>();
+
+        for (int i = 0; i < entries.size(); i++) {
+            ClientEntryRequest entry = entries.get(i);
+            if (entry == null) {
+                results[i] = rejectedEntry(i, null, "Client entry is required");
+                continue;
+            }
+            Set<ConstraintViolation<ClientEntryRequest>> violations = validator.validate(entry);
+            if (!violations.isEmpty()) {
+                results[i] = rejectedEntry(i, entry.getNationalId(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            if (!nationalIds.add(entry.getNationalId())) {
+                results[i] = rejectedEntry(i, entry.getNationalId(), "National ID is repeated in this batch");
+                continue;
+            }
+            LocalDate dateOfBirth;
+            try {
+                dateOfBirth = entry.getDate_of_birth() != null
+                        ? LocalDate.parse(entry.getDate_of_birth())
+                        : workDate.minusYears(18);
+            } catch (DateTimeParseException e) {
+                results[i] = rejectedEntry(i, entry.getNationalId(), "Date of birth must be in the format yyyy-MM-dd");
+                continue;
+            }
+
+            candidates.put(i, Client.builder()
+                    .agent(agent)
+                    .name(entry.getName())
+                    .nationalId(entry.getNationalId())
+                    .phoneNumber(entry.getPhone())
+                    .insuranceType(Client.InsuranceType.valueOf(entry.getInsuranceType()))
+                    .location(entry.getLocationOfClient())
+                    .dateOfBirth(dateOfBirth)
+                    .policyStatus(PolicyStatus.PENDING)
+                    .policyStartDate(workDate)
+                    .policyEndDate(workDate.plusYears(1))
+                    .premiumAmount(0.0)
+                    .timeOfInteraction(timesOfInteraction.get(i))
+                    .build());
+        }
+
+        // One IN query for the whole batch; a replayed sync finds its earlier entries here
+        Set<String> taken = clientBatchService.findTaken(candidates.values()).nationalIds();
+        List<Client> clients = new ArrayList<>();
+        String firstLocation = null;
+        for (Map.Entry<Integer, Client> candidate : candidates.entrySet()) {
+            Client client = candidate.getValue();
+            if (taken.contains(client.getNationalId().toLowerCase(Locale.ROOT))) {
+                results[candidate.getKey()] = rejectedEntry(candidate.getKey(), client.getNationalId(),
+                        NATIONAL_ID_ALREADY_RECORDED);
+                continue;
+            }
+            if (firstLocation == null) {
+                firstLocation = client.getLocation();
+            }
+            clients.add(client);
+            results[candidate.getKey()] = ClientEntryBatchResponse.EntryResult.builder()
+                    .index(candidate.getKey())
+                    .nationalId(client.getNationalId())
+                    .status(ClientEntryBatchResponse.Status.SAVED)
+                    .build();
+        }
+
+        if (!clients.isEmpty()) {
+            WorkLog workLog = findOrCreateWorkLog(agent, workDate, firstLocation);
+            clientBatchService.insertBatch(clients);
+            workLogCounterService.addClientsServed(workLog, clients.size());
+        }
+        log.info("Synced {} of {} client entries for agent {}", clients.size(), entries.size(), agent.getId());
+
+        return ClientEntryBatchResponse.builder()
+                .saved(clients.size())
+                .rejected(entries.size() - clients.size())
+                .timeOfInteraction(timesOfInteraction.isEmpty() ? null : timesOfInteraction.get(0).toString())
+                .results(List.of(results))
+                .build();
+    }
+
+    private WorkLog findOrCreateWorkLog(User agent, LocalDate date, String location) {
+        Optional<WorkLog> workLogOpt = workLogRepository.findByAgentAndDate(agent, date);
+        if (workLogOpt.isPresent()) {
+            return workLogOpt.get();
+        }
+
+        log.info("No work log found for agent {}, creating one automatically", agent.getId());
+        WorkLog workLog = WorkLog.builder()
+                .agent(agent)
+                .date(date)
+                .status(WorkLog.WorkStatus.WORKED)
+                .clientsServed(0)
+                .location(location)
+                .sector("Auto-created")
+                .checkInTime(LocalDateTime.now())
+                .autoGenerated(true)
+                .build();
+        workLog = workLogRepository.save(workLog);
+        agentDailyStatsService.recordWorkLog(agent, workLog);
+        log.info("Created new work log for agent {} with ID {}", agent.getId(), workLog.getId());
+        return workLog;
+    }
+
+    private static ClientEntryBatchResponse.EntryResult rejectedEntry(int index, String nationalId, String message) {
+        return ClientEntryBatchResponse.EntryResult.builder()
+                .index(index)
+                .nationalId(nationalId)
+                .status(ClientEntryBatchResponse.Status.REJECTED)
+                .message(message)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public PerformanceReportResponse getPerformanceReport(User agent, String period) {
         // Validate period (already done in controller, but adding here for robustness)
@@ -198,9 +356,11 @@ public class AgentService {
 
         Long daysWorked = workLogRepository.countWorkDaysByAgentAndDateRange(agent, startDate, endDate);
 
-        Map<String, Integer> dailyClientsCount = getDailyClientsCount(agent, startDate, endDate);
-        Map<String, List<String>> dailySectors = getDailySectors(agent, startDate, endDate);
-        Map<String, String> workStatus = getWorkStatus(agent, startDate, endDate);
+        // One range read of the daily rollup feeds all three per-day breakdowns
+        Map<LocalDate, AgentDailyStats> dailyStats = agentDailyStatsService.getStatsByDate(agent, startDate, endDate);
+        Map<String, Integer> dailyClientsCount = getDailyClientsCount(dailyStats, startDate, endDate);
+        Map<String, List<String>> dailySectors = getDailySectors(dailyStats, startDate, endDate);
+        Map<String, String> workStatus = getWorkStatus(dailyStats, startDate, endDate);
 
         return PerformanceReportResponse.builder()
                 .total_clients_engaged(totalClientsEngaged != null ? totalClientsEngaged.intValue() : 0)
@@ -212,24 +372,23 @@ public class AgentService {
                 .build();
     }
 
-    private Map<String, Integer> getDailyClientsCount(User agent, LocalDate startDate, LocalDate endDate) {
+    private Map<String, Integer> getDailyClientsCount(Map<LocalDate, AgentDailyStats> dailyStats,
+                                                      LocalDate startDate, LocalDate endDate) {
         Map<String, Integer> result = new HashMap<>();
 
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
             String dayName = date.getDayOfWeek().toString().charAt(0) +
                     date.getDayOfWeek().toString().substring(1).toLowerCase();
 
-            LocalDateTime dateStart = date.atStartOfDay();
-            LocalDateTime dateEnd = date.atTime(23, 59, 59);
-            Long count = clientRepository.countByAgentAndTimeRange(agent, dateStart, dateEnd);
-
-            result.put(dayName, count != null ? count.intValue() : 0);
+            AgentDailyStats stats = dailyStats.get(date);
+            result.put(dayName, stats != null ? stats.getClientCount() : 0);
         }
 
         return result;
     }
 
-    private Map<String, List<String>> getDailySectors(User agent, LocalDate startDate, LocalDate endDate) {
+    private Map<String, List<String>> getDailySectors(Map<LocalDate, AgentDailyStats> dailyStats,
+                                                      LocalDate startDate, LocalDate endDate) {
         Map<String, List<String>> result = new HashMap<>();
 
         // Fill in each day from start to end date
@@ -237,44 +396,38 @@ public class AgentService {
             String dayName = date.getDayOfWeek().toString().charAt(0) +
                     date.getDayOfWeek().toString().substring(1).toLowerCase();
 
-            // Get sectors from client data (insurance types)
-            LocalDateTime dateStart = date.atStartOfDay();
-            LocalDateTime dateEnd = date.atTime(23, 59, 59);
-            List<String> sectors = clientRepository.findInsuranceTypesByAgentAndTimeRange(agent, dateStart, dateEnd);
-
-            // If no sectors from client data, fall back to work log
-            if (sectors == null || sectors.isEmpty()) {
-                sectors = workLogRepository.findByAgentAndDate(agent, date)
-                        .map(log -> log.getSector())
-                        .map(List::of)
-                        .orElse(new ArrayList<>());
+            AgentDailyStats stats = dailyStats.get(date);
+            List<String> sectors = new ArrayList<>();
+            if (stats != null) {
+                // Sectors from client data (insurance types), falling back to the work log sector
+                sectors = stats.getInsuranceTypeList();
+                if (sectors.isEmpty() && stats.getSector() != null) {
+                    sectors = List.of(stats.getSector());
+                }
             }
 
-            result.put(dayName, sectors != null ? sectors : new ArrayList<>());
+            result.put(dayName, sectors);
         }
 
         return result;
     }
 
-    private Map<String, String> getWorkStatus(User agent, LocalDate startDate, LocalDate endDate) {
+    private Map<String, String> getWorkStatus(Map<LocalDate, AgentDailyStats> dailyStats,
+                                              LocalDate startDate, LocalDate endDate) {
         Map<String, String> result = new HashMap<>();
 
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
             String dayName = date.getDayOfWeek().toString().charAt(0) +
                     date.getDayOfWeek().toString().substring(1).toLowerCase();
 
-            boolean worked = workLogRepository.findByAgentAndDate(agent, date)
-                    .map(log -> log.getStatus() == WorkLog.WorkStatus.WORKED)
-                    .orElse(false);
-
-            LocalDateTime dateStart = date.atStartOfDay();
-            LocalDateTime dateEnd = date.atTime(23, 59, 59);
-            Long clientCount = clientRepository.countByAgentAndTimeRange(agent, dateStart, dateEnd);
+            AgentDailyStats stats = dailyStats.get(date);
+            boolean worked = stats != null && stats.getWorkStatus() == WorkLog.WorkStatus.WORKED;
+            int clientCount = stats != null ? stats.getClientCount() : 0;
 
             String status;
             if (!worked) {
                 status = "No work";
-            } else if (clientCount != null && clientCount > 0) {
+            } else if (clientCount > 0) {
                 status = "Worked";
             } else {
                 status = "Worked but no clients";
@@ -285,4 +438,4 @@ public class AgentService {
 
         return result;
     }
-}
\ No newline at end of file
+}
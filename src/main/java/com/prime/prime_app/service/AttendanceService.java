@@ -21,6 +21,8 @@ import java.util.List;
 public class AttendanceService {
     private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
+    private final AgentDailyStatsService agentDailyStatsService;
+    private final DashboardCacheService dashboardCacheService;
 
     private static final LocalTime START_TIME = LocalTime.of(0, 0); // 12:00 AM
     private static final LocalTime END_TIME = LocalTime.of(23, 59);   // 11:59 PM
@@ -53,7 +55,10 @@ public class AttendanceService {
                 .notes(notes)
                 .build();
 
-        return attendanceRepository.save(attendance);
+        attendance = attendanceRepository.save(attendance);
+        agentDailyStatsService.recordCheckIn(agent, now.toLocalDate());
+        dashboardCacheService.agentCheckedIn(agent);
+        return attendance;
     }
 
     @Transactional
@@ -0,0 +1,159 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.repository.ClientRepository;
+import com.prime.prime_app.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Set-based uniqueness checks and JDBC-batched inserts for many clients at once.
+ * <p>
+ * Uniqueness is checked with one {@code IN (...)} query per unique column per chunk
+ * instead of lookups per client, and inserts go through {@code batchUpdate} instead
+ * of one persist and flush per entity. The agent_daily_stats rollup is updated once
+ * per (agent, day) and the affected dashboards are evicted once per agent.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientBatchService {
+    private static final String INSERT_SQL = "INSERT INTO clients (name, first_name, last_name, national_id, email, " +
+            "phone_number, address, location, sector, date_of_birth, insurance_type, policy_number, policy_status, " +
+            "policy_start_date, policy_end_date, premium_amount, agent_id, time_of_interaction, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ClientRepository clientRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AgentDailyStatsService agentDailyStatsService;
+    private final DashboardCacheService dashboardCacheService;
+
+    @Value("${app.clients.batch.in-chunk-size:1000}")
+    private int inChunkSize;
+
+    @Value("${app.clients.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    /**
+     * Unique values among a set of candidate clients that already exist in the database,
+     * lower-cased since MySQL's default collation compares them case-insensitively
+     */
+    public record TakenValues(Set<String> nationalIds, Set<String> emails, Set<String> policyNumbers) {
+    }
+
+    @Transactional(readOnly = true)
+    public TakenValues findTaken(Collection<Client> candidates) {
+        return new TakenValues(
+                findExisting(candidates, Client::getNationalId, clientRepository::findExistingNationalIds),
+                findExisting(candidates, Client::getEmail, clientRepository::findExistingEmails),
+                findExisting(candidates, Client::getPolicyNumber, clientRepository::findExistingPolicyNumbers));
+    }
+
+    /**
+     * Insert the clients with JDBC batching and update the rollups they affect. Joins the
+     * caller's transaction, so a failure (e.g. a unique key taken by a concurrent writer)
+     * rolls back the whole batch. Each client needs an agent with at least its id set.
+     */
+    @Transactional
+    public void insertBatch(List<Client> clients) {
+        if (clients.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Client client : clients) {
+            if (client.getFirstName() == null || client.getLastName() == null) {
+                String[] parts = client.getName().split(" ", 2);
+                client.setFirstName(parts[0]);
+                client.setLastName(parts.length > 1 ? parts[1] : "");
+            }
+            if (client.getTimeOfInteraction() == null) {
+                client.setTimeOfInteraction(now);
+            }
+            client.setCreatedAt(now);
+            client.setUpdatedAt(now);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, clients, jdbcBatchSize, (ps, client) -> {
+            ps.setString(1, client.getName());
+            ps.setString(2, client.getFirstName());
+            ps.setString(3, client.getLastName());
+            ps.setString(4, client.getNationalId());
+            ps.setString(5, client.getEmail());
+            ps.setString(6, client.getPhoneNumber());
+            ps.setString(7, client.getAddress());
+            ps.setString(8, client.getLocation());
+            ps.setString(9, client.getSector());
+            ps.setObject(10, Date.valueOf(client.getDateOfBirth()));
+            ps.setString(11, client.getInsuranceType().name());
+            ps.setString(12, client.getPolicyNumber());
+            ps.setString(13, client.getPolicyStatus().name());
+            ps.setObject(14, Date.valueOf(client.getPolicyStartDate()));
+            ps.setObject(15, Date.valueOf(client.getPolicyEndDate()));
+            ps.setDouble(16, client.getPremiumAmount());
+            ps.setLong(17, client.getAgent().getId());
+            ps.setTimestamp(18, Timestamp.valueOf(client.getTimeOfInteraction()));
+            ps.setTimestamp(19, Timestamp.valueOf(client.getCreatedAt()));
+            ps.setTimestamp(20, Timestamp.valueOf(client.getUpdatedAt()));
+        });
+
+        recordRollups(clients);
+        log.debug("Inserted {} clients in batches of {}", clients.size(), jdbcBatchSize);
+    }
+
+    private void recordRollups(List<Client> clients) {
+        Map<Long, User> agents = new LinkedHashMap<>();
+        Map<Long, Map<LocalDate, List<Client>>> byAgentAndDay = new LinkedHashMap<>();
+        for (Client client : clients) {
+            // Managed references, whatever kind of agent object the caller passed in
+            agents.computeIfAbsent(client.getAgent().getId(), userRepository::getReferenceById);
+            byAgentAndDay.computeIfAbsent(client.getAgent().getId(), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(client.getTimeOfInteraction().toLocalDate(), date -> new ArrayList<>())
+                    .add(client);
+        }
+
+        byAgentAndDay.forEach((agentId, days) -> days.forEach((date, dayClients) -> {
+            Set<String> insuranceTypes = new TreeSet<>();
+            dayClients.forEach(client -> insuranceTypes.add(client.getInsuranceType().name()));
+            agentDailyStatsService.recordClients(agents.get(agentId), date, dayClients.size(), insuranceTypes);
+        }));
+        agents.values().forEach(dashboardCacheService::clientLogged);
+    }
+
+    private Set<String> findExisting(Collection<Client> candidates, Function<Client, String> column,
+                                     Function<Collection<String>, List<String>> query) {
+        List<String> values = candidates.stream()
+                .map(column)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < values.size(); from += inChunkSize) {
+            query.apply(values.subList(from, Math.min(from + inChunkSize, values.size())))
+                    .forEach(value -> taken.add(value.toLowerCase(Locale.ROOT)));
+        }
+        return taken;
+    }
+}
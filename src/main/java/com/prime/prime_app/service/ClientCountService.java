@@ -0,0 +1,51 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.enums.TimeBucket;
+import com.prime.prime_app.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time-bucketed client counts, built from one grouped per-day query
+ */
+@Service
+@RequiredArgsConstructor
+public class ClientCountService {
+    private final ClientRepository clientRepository;
+
+    /**
+     * Client counts for a manager's team per bucket, in order, with empty buckets as zero
+     */
+    public Map<LocalDate, Long> countByManagerPerBucket(Long managerId, LocalDateTime startDate, LocalDateTime endDate,
+                                                        TimeBucket bucket) {
+        return toBuckets(clientRepository.countDailyByManager(managerId, startDate, endDate), startDate, endDate, bucket);
+    }
+
+    /**
+     * Client counts for one agent per bucket, in order, with empty buckets as zero
+     */
+    public Map<LocalDate, Long> countByAgentPerBucket(Long agentId, LocalDateTime startDate, LocalDateTime endDate,
+                                                      TimeBucket bucket) {
+        return toBuckets(clientRepository.countDailyByAgent(agentId, startDate, endDate), startDate, endDate, bucket);
+    }
+
+    private static Map<LocalDate, Long> toBuckets(List<Object[]> dailyCounts, LocalDateTime startDate,
+                                                  LocalDateTime endDate, TimeBucket bucket) {
+        Map<LocalDate, Long> buckets = new LinkedHashMap<>();
+        LocalDate last = bucket.bucketStart(endDate.toLocalDate());
+        for (LocalDate day = bucket.bucketStart(startDate.toLocalDate()); !day.isAfter(last); day = bucket.next(day)) {
+            buckets.put(day, 0L);
+        }
+        for (Object[] row : dailyCounts) {
+            LocalDate day = AgentDailyStatsService.toLocalDate(row[0]);
+            buckets.merge(bucket.bucketStart(day), ((Number) row[1]).longValue(), Long::sum);
+        }
+        return buckets;
+    }
+}
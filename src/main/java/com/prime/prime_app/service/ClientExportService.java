@@ -0,0 +1,84 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.client.ClientExportRow;
+import com.prime.prime_app.enums.ExportFormat;
+import com.prime.prime_app.repository.ClientRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a manager's client export from a database cursor into the requested writer.
+ * Rows are flat {@link ClientExportRow} projections read one at a time, so no Client
+ * entities are materialized and no agent is lazy-loaded per row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientExportService {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ClientRepository clientRepository;
+    private final ExcelExportService excelExportService;
+    private final ReportExportService reportExportService;
+    private final CsvExportService csvExportService;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTx;
+
+    @PostConstruct
+    void init() {
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Write the team's clients for the range to {@code out}. Runs in its own read-only
+     * transaction, so it is safe to call from a StreamingResponseBody or a worker thread.
+     */
+    public void exportTeamClients(Long managerId, LocalDateTime startDate, LocalDateTime endDate,
+                                  ExportFormat format, OutputStream out) {
+        exportTeamClients(managerId, startDate, endDate, format, false, out);
+    }
+
+    /**
+     * As above, optionally gzip-compressing the output. The gzip trailer is written but
+     * {@code out} itself is left open for the caller.
+     */
+    public void exportTeamClients(Long managerId, LocalDateTime startDate, LocalDateTime endDate,
+                                  ExportFormat format, boolean gzip, OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<ClientExportRow> rows = clientRepository.streamExportRowsByManager(managerId, startDate, endDate)) {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    write(format, rows, compressed);
+                    compressed.finish();
+                } else {
+                    write(format, rows, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to compress client export", e);
+            }
+        });
+        log.debug("Exported clients for manager {} as {}{}", managerId, format, gzip ? " (gzip)" : "");
+    }
+
+    private void write(ExportFormat format, Stream<ClientExportRow> rows, OutputStream out) {
+        switch (format) {
+            case EXCEL -> excelExportService.writeRowsToExcel(rows, out);
+            case PDF -> reportExportService.writeRowsToPdf(rows, out);
+            case CSV -> csvExportService.writeRowsToCsv(rows, out);
+            case NDJSON -> csvExportService.writeRowsToNdjson(rows, out);
+        }
+    }
+}
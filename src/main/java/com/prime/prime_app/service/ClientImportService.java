@@ -0,0 +1,528 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.client.ClientImportResponse;
+import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.entities.PolicyStatus;
+import com.prime.prime_app.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk client import from CSV or XLSX for back-office migrations.
+ * <p>
+ * Files are read as a stream of rows: CSV with a small RFC 4180 reader, XLSX with POI's
+ * SAX event API, so a sheet is never loaded as a workbook. Rows are validated and
+ * collected into chunks; each chunk resolves its agents, checks uniqueness with one
+ * set-based query per unique column and is inserted through {@link ClientBatchService}.
+ * Bad rows are reported individually and never stop the import. If the file itself
+ * breaks off part way, the rows read so far are still imported and the response carries
+ * a {@code fileError} next to the usual totals.
+ * <p>
+ * The first row is a header. Required columns: name, nationalId, phoneNumber, location,
+ * insuranceType and agentWorkId (unless a default agent is given). Optional: email,
+ * address, sector, dateOfBirth, policyNumber, policyStatus, policyStartDate,
+ * policyEndDate, premiumAmount, timeOfInteraction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientImportService {
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "name", "nationalid", "phonenumber", "location", "insurancetype");
+
+    private final ClientBatchService clientBatchService;
+    private final UserRepository userRepository;
+
+    @Value("${app.imports.clients.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.imports.clients.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ClientImportResponse importClients(MultipartFile file, String defaultAgentWorkId) {
+        long started = System.currentTimeMillis();
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        ImportRun run = new ImportRun(defaultAgentWorkId);
+        String fileError = null;
+
+        try {
+            if (filename.endsWith(".xlsx")) {
+                readXlsx(file, run);
+            } else if (filename.endsWith(".csv") || "text/csv".equals(file.getContentType())) {
+                try (InputStream in = file.getInputStream()) {
+                    readCsv(new InputStreamReader(in, StandardCharsets.UTF_8), run);
+                }
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only .xlsx and .csv files can be imported");
+            }
+        } catch (IOException e) {
+            log.error("Failed to read client import {} after {} rows: {}",
+                    file.getOriginalFilename(), run.totalRows, e.getMessage(), e);
+            if (run.totalRows == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not read the import file: " + e.getMessage());
+            }
+            // Rows before the failure are complete; import them and report where the file broke off
+            fileError = "Could not read the rest of the file after " + run.totalRows + " rows: " + e.getMessage();
+        }
+        run.flush();
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Imported {} of {} client rows from {} in {} ms ({} failed)",
+                run.imported, run.totalRows, file.getOriginalFilename(), duration, run.failed);
+
+        return ClientImportResponse.builder()
+                .totalRows(run.totalRows)
+                .imported(run.imported)
+                .failed(run.failed)
+                .durationMs(duration)
+                .errors(run.errors)
+                .fileError(fileError)
+                .build();
+    }
+
+    private void readXlsx(MultipartFile file, ImportRun run) throws IOException {
+        // OPCPackage reads a file lazily but buffers a whole InputStream, so spool to disk first
+        Path temp = Files.createTempFile("client-import-", ".xlsx");
+        try {
+            file.transferTo(temp);
+            try (OPCPackage pkg = OPCPackage.open(temp.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The workbook has no sheets");
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                            new SheetRowHandler(run), new IsoDateFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+                throw new IOException("Invalid XLSX file", e);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields, doubled quotes and line breaks inside quotes
+     */
+    private static void readCsv(Reader source, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(source, 64 * 1024);
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean rowHasContent = false;
+        int rowNum = 1;
+        int c;
+        while ((c = reader.read()) != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    cell.append(ch);
+                }
+                continue;
+            }
+            switch (ch) {
+                case '"' -> {
+                    quoted = true;
+                    rowHasContent = true;
+                }
+                case ',' -> {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    rowHasContent = true;
+                }
+                case '\r' -> {
+                    // Handled by the following \n
+                }
+                case '\n' -> {
+                    if (rowHasContent || cell.length() > 0) {
+                        cells.add(cell.toString());
+                        run.onRow(rowNum, cells);
+                    }
+                    cells = new ArrayList<>();
+                    cell.setLength(0);
+                    rowHasContent = false;
+                    rowNum++;
+                }
+                default -> {
+                    cell.append(ch);
+                    rowHasContent = true;
+                }
+            }
+        }
+        if (rowHasContent || cell.length() > 0) {
+            cells.add(cell.toString());
+            run.onRow(rowNum, cells);
+        }
+    }
+
+    /**
+     * State of one import: header layout, the current chunk and the running totals
+     */
+    private class ImportRun {
+        private final String defaultAgentWorkId;
+        private final List<ParsedRow> chunk = new ArrayList<>();
+        private final Map<String, Long> agentIds = new HashMap<>();
+        private final Set<String> seenNationalIds = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> seenPolicyNumbers = new HashSet<>();
+        private final List<ClientImportResponse.RowError> errors = new ArrayList<>();
+        private Map<String, Integer> columns;
+        private int totalRows;
+        private int imported;
+        private int failed;
+
+        ImportRun(String defaultAgentWorkId) {
+            this.defaultAgentWorkId = blankToNull(defaultAgentWorkId);
+        }
+
+        void onRow(int rowNum, List<String> cells) {
+            if (columns == null) {
+                readHeader(cells);
+                return;
+            }
+            if (cells.stream().allMatch(value -> value == null || value.isBlank())) {
+                return;
+            }
+
+            totalRows++;
+            try {
+                chunk.add(parse(rowNum, cells));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                error(rowNum, cell(cells, "nationalid"), e.getMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void readHeader(List<String> cells) {
+            columns = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                if (cells.get(i) != null) {
+                    columns.putIfAbsent(normalize(cells.get(i)), i);
+                }
+            }
+            // Accept the field names used by the agent client entry form as well
+            alias("phone", "phonenumber");
+            alias("locationofclient", "location");
+            alias("workid", "agentworkid");
+
+            List<String> missing = new ArrayList<>(REQUIRED_COLUMNS.stream()
+                    .filter(column -> !columns.containsKey(column))
+                    .toList());
+            if (defaultAgentWorkId == null && !columns.containsKey("agentworkid")) {
+                missing.add("agentworkid");
+            }
+            if (!missing.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Import file is missing required columns: " + String.join(", ", missing));
+            }
+        }
+
+        private void alias(String alias, String column) {
+            if (!columns.containsKey(column) && columns.containsKey(alias)) {
+                columns.put(column, columns.get(alias));
+            }
+        }
+
+        private ParsedRow parse(int rowNum, List<String> cells) {
+            LocalDate today = LocalDate.now();
+            String name = required(cells, "name", "Name");
+            String[] nameParts = name.split(" ", 2);
+
+            String dateOfBirth = cell(cells, "dateofbirth");
+            String policyStatus = cell(cells, "policystatus");
+            String policyStart = cell(cells, "policystartdate");
+            String policyEnd = cell(cells, "policyenddate");
+            String premium = cell(cells, "premiumamount");
+            String timeOfInteraction = cell(cells, "timeofinteraction");
+
+            Client client = Client.builder()
+                    .name(name)
+                    .firstName(nameParts[0])
+                    .lastName(nameParts.length > 1 ? nameParts[1] : "")
+                    .nationalId(required(cells, "nationalid", "National ID"))
+                    .phoneNumber(required(cells, "phonenumber", "Phone number"))
+                    .location(required(cells, "location", "Location"))
+                    .insuranceType(parseEnum(Client.InsuranceType.class, required(cells, "insurancetype", "Insurance type"), "insurance type"))
+                    .email(cell(cells, "email"))
+                    .address(cell(cells, "address"))
+                    .sector(cell(cells, "sector"))
+                    .policyNumber(cell(cells, "policynumber"))
+                    .dateOfBirth(dateOfBirth != null ? LocalDate.parse(dateOfBirth) : today.minusYears(18))
+                    .policyStatus(policyStatus != null ? parseEnum(PolicyStatus.class, policyStatus, "policy status") : PolicyStatus.PENDING)
+                    .policyStartDate(policyStart != null ? LocalDate.parse(policyStart) : today)
+                    .policyEndDate(policyEnd != null ? LocalDate.parse(policyEnd) : today.plusYears(1))
+                    .premiumAmount(premium != null ? Double.parseDouble(premium) : 0.0)
+                    .timeOfInteraction(timeOfInteraction != null ? parseDateTime(timeOfInteraction) : LocalDateTime.now())
+                    .build();
+
+            String agentWorkId = cell(cells, "agentworkid");
+            return new ParsedRow(rowNum, client, agentWorkId != null ? agentWorkId : defaultAgentWorkId);
+        }
+
+        /**
+         * Check and insert the current chunk
+         */
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            resolveAgents();
+
+            List<ParsedRow> candidates = new ArrayList<>();
+            for (ParsedRow row : chunk) {
+                Long agentId = row.agentWorkId() != null ? agentIds.get(row.agentWorkId()) : null;
+                if (agentId == null) {
+                    error(row, row.agentWorkId() == null
+                            ? "Agent work ID is required"
+                            : "No agent with work ID " + row.agentWorkId());
+                } else {
+                    row.client().setAgent(userRepository.getReferenceById(agentId));
+                    candidates.add(row);
+                }
+            }
+
+            ClientBatchService.TakenValues taken = clientBatchService.findTaken(
+                    candidates.stream().map(ParsedRow::client).toList());
+            List<ParsedRow> accepted = new ArrayList<>();
+            for (ParsedRow row : candidates) {
+                String problem = duplicateProblem(row.client(), taken);
+                if (problem != null) {
+                    error(row, problem);
+                } else {
+                    accepted.add(row);
+                }
+            }
+
+            insert(accepted);
+            chunk.clear();
+        }
+
+        private void resolveAgents() {
+            List<String> unknown = chunk.stream()
+                    .map(ParsedRow::agentWorkId)
+                    .filter(workId -> workId != null && !agentIds.containsKey(workId))
+                    .distinct()
+                    .toList();
+            if (unknown.isEmpty()) {
+                return;
+            }
+            unknown.forEach(workId -> agentIds.put(workId, null));
+            for (Object[] row : userRepository.findAgentIdsByWorkIds(unknown)) {
+                agentIds.put((String) row[0], (Long) row[1]);
+            }
+        }
+
+        private String duplicateProblem(Client client, ClientBatchService.TakenValues taken) {
+            String nationalId = client.getNationalId().toLowerCase(Locale.ROOT);
+            if (taken.nationalIds().contains(nationalId)) {
+                return "A client with national ID " + client.getNationalId() + " already exists";
+            }
+            if (!seenNationalIds.add(nationalId)) {
+                return "National ID " + client.getNationalId() + " appears more than once in the file";
+            }
+            if (client.getEmail() != null) {
+                String email = client.getEmail().toLowerCase(Locale.ROOT);
+                if (taken.emails().contains(email) || !seenEmails.add(email)) {
+                    return "Email " + client.getEmail() + " is already used";
+                }
+            }
+            if (client.getPolicyNumber() != null) {
+                String policyNumber = client.getPolicyNumber().toLowerCase(Locale.ROOT);
+                if (taken.policyNumbers().contains(policyNumber) || !seenPolicyNumbers.add(policyNumber)) {
+                    return "Policy number " + client.getPolicyNumber() + " is already used";
+                }
+            }
+            return null;
+        }
+
+        private void insert(List<ParsedRow> rows) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                clientBatchService.insertBatch(rows.stream().map(ParsedRow::client).toList());
+                imported += rows.size();
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent writer took one of the values; find out which rows by inserting one at a time
+                log.warn("Batch insert of {} clients conflicted, retrying row by row: {}",
+                        rows.size(), e.getMostSpecificCause().getMessage());
+                for (ParsedRow row : rows) {
+                    try {
+                        clientBatchService.insertBatch(List.of(row.client()));
+                        imported++;
+                    } catch (DataIntegrityViolationException ex) {
+                        error(row, "Conflicts with an existing client: " + ex.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        private void error(ParsedRow row, String message) {
+            error(row.rowNum(), row.client().getNationalId(), message);
+        }
+
+        private void error(int rowNum, String nationalId, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ClientImportResponse.RowError.builder()
+                        .row(rowNum)
+                        .nationalId(nationalId)
+                        .message(message)
+                        .build());
+            }
+        }
+
+        private String cell(List<String> cells, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size()) {
+                return null;
+            }
+            return blankToNull(cells.get(index));
+        }
+
+        private String required(List<String> cells, String column, String label) {
+            String value = cell(cells, column);
+            if (value == null) {
+                throw new IllegalArgumentException(label + " is required");
+            }
+            return value;
+        }
+    }
+
+    private record ParsedRow(int rowNum, Client client, String agentWorkId) {
+    }
+
+    /**
+     * Feeds XLSX rows to the import, placing each cell by its reference since empty
+     * cells are absent from the sheet XML
+     */
+    private static class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final ImportRun run;
+        private List<String> cells;
+
+        SheetRowHandler(ImportRun run) {
+            this.run = run;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            run.onRow(rowNum + 1, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            if (column >= cells.size()) {
+                cells.addAll(Collections.nCopies(column - cells.size() + 1, null));
+            }
+            cells.set(column, formattedValue);
+        }
+    }
+
+    /**
+     * Formats date cells as ISO dates and whole numbers without exponent, so the
+     * importer sees the same text for an XLSX cell as it would for a CSV field
+     */
+    private static class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                LocalDateTime dateTime = DateUtil.getLocalDateTime(value);
+                return dateTime.toLocalTime().equals(LocalTime.MIDNIGHT)
+                        ? dateTime.toLocalDate().toString()
+                        : dateTime.toString();
+            }
+            if (formatIndex == 0 && value == Math.rint(value) && Math.abs(value) < 1e15) {
+                return Long.toString((long) value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + value);
+        }
+    }
+
+    private static String normalize(String header) {
+        return header.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,616 @@
+package com.prime.prime_app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prime.prime_app.dto.agent.ClientEntryBatchResponse;
+import com.prime.prime_app.dto.agent.ClientEntryRequest;
+import com.prime.prime_app.dto.agent.ClientEntryResponse;
+import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.exception.InvalidOperationException;
+import com.prime.prime_app.exception.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Entry point for single client entries, with an optional write-behind mode.
+ * <p>
+ * With {@code app.ingest.mode=sync} (the default) entries go straight to
+ * {@link AgentService#logClientInteraction}. With {@code journal}, an entry is checked
+ * without touching the database, appended as one JSON line to a local journal and
+ * acknowledged once it is on disk. A single writer thread group-commits whatever has
+ * queued up with one fsync, so the append rate is bound by the disk rather than by
+ * connection pool round trips. A scheduled drainer then replays the journal into MySQL
+ * in batches through {@link AgentService#replayClientInteractions} and records how far
+ * it got in a checkpoint file.
+ * <p>
+ * After a crash the torn tail of the last segment (never acknowledged) is cut off and
+ * draining resumes from the checkpoint. Entries stored before the checkpoint was
+ * written are recognised by national ID and skipped, so a replay never duplicates
+ * clients; they are only counted in the {@code ingest.journal.already_stored} metric. The drainer runs in either mode, so a journal left behind is still drained
+ * after switching back to sync. If a batch conflicts with a concurrent writer it is
+ * retried one entry at a time, so only the conflicting entry is set aside. Entries the
+ * database rejects for good are logged, kept in {@code dead-letter.jsonl} and counted in
+ * the {@code ingest.journal.dead_lettered} metric.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientIngestService {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String DEAD_LETTER_FILE = "dead-letter.jsonl";
+    private static final int READ_BUFFER_BYTES = 1024 * 1024;
+
+    private final AgentService agentService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ingest.mode:sync}")
+    private String mode;
+
+    @Value("${app.ingest.journal-dir:${file.upload-dir:uploads}/ingest-journal}")
+    private String journalDirectory;
+
+    @Value("${app.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.ingest.group-max-entries:1000}")
+    private int groupMaxEntries;
+
+    @Value("${app.ingest.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    @Value("${app.ingest.drain-batch-size:500}")
+    private int drainBatchSize;
+
+    @Value("${app.ingest.drain-max-batches-per-run:20}")
+    private int drainMaxBatchesPerRun;
+
+    @Value("${app.ingest.drain-max-run-ms:2000}")
+    private long drainMaxRunMs;
+
+    @Value("${app.ingest.append-timeout-ms:5000}")
+    private long appendTimeoutMs;
+
+    private record JournalRecord(Long agentId, LocalDateTime timeOfInteraction, ClientEntryRequest entry) {
+    }
+
+    private record PendingWrite(byte[] line, CompletableFuture<Void> durable) {
+    }
+
+    /**
+     * End of the fsynced data in the segment being written; published as one value so
+     * the drainer never pairs a segment with another segment's size
+     */
+    private record DurableMark(Path segment, long size) {
+    }
+
+    private record Checkpoint(Path segment, long offset) {
+    }
+
+    private Path journalDir;
+    private boolean journalMode;
+    private BlockingQueue<PendingWrite> queue;
+    private ThreadPoolExecutor writer;
+    private volatile boolean stopping;
+    private volatile DurableMark durableMark;
+    private FileChannel activeChannel;
+    private long nextSegmentNumber;
+    private Checkpoint checkpoint;
+
+    @PostConstruct
+    public void init() {
+        journalMode = "journal".equalsIgnoreCase(mode);
+        try {
+            journalDir = Paths.get(journalDirectory).toAbsolutePath().normalize();
+            Files.createDirectories(journalDir);
+            List<Path> segments = listSegments();
+            nextSegmentNumber = segments.isEmpty() ? 1 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+            if (!segments.isEmpty()) {
+                truncateTornTail(segments.get(segments.size() - 1));
+            }
+            checkpoint = readCheckpoint();
+            if (!segments.isEmpty()) {
+                log.info("Ingest journal has {} segment(s) to drain from {}", segments.size(),
+                        checkpoint != null ? checkpoint : "the start");
+            }
+            if (journalMode) {
+                openSegment(segments.isEmpty() || Files.size(segments.get(segments.size() - 1)) >= segmentMaxBytes
+                        ? newSegmentPath()
+                        : segments.get(segments.size() - 1));
+            }
+        } catch (IOException e) {
+            log.error("Could not initialize the ingest journal: {}", e.getMessage(), e);
+            throw new RuntimeException("Could not initialize the ingest journal", e);
+        }
+
+        if (journalMode) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            AtomicInteger threadCount = new AtomicInteger();
+            writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "ingest-journal-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            writer.execute(this::writeLoop);
+            log.info("Client entries are journaled to {} and written to the database in the background", journalDir);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!journalMode) {
+            return;
+        }
+        // Let the writer commit what is queued, then close the segment
+        stopping = true;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            activeChannel.close();
+        } catch (IOException e) {
+            log.warn("Could not close ingest journal segment: {}", e.getMessage());
+        }
+    }
+
+    public ClientEntryResponse logClientInteraction(User agent, ClientEntryRequest request) {
+        if (!journalMode) {
+            return agentService.logClientInteraction(agent, request);
+        }
+
+        if (agent == null || !agent.isEnabled()) {
+            throw new InvalidOperationException("Agent account is not active");
+        }
+        if (!agentService.isAgentAssignedToManager(agent)) {
+            throw new InvalidOperationException("Agent is not assigned to any manager");
+        }
+        // What the database would refuse later is refused now, while the agent can still fix it
+        try {
+            Client.InsuranceType.valueOf(request.getInsuranceType());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid insurance type. Must be one of: " +
+                    Arrays.stream(Client.InsuranceType.values()).map(Enum::name).collect(Collectors.joining(", ")));
+        }
+        if (request.getDate_of_birth() != null) {
+            try {
+                LocalDate.parse(request.getDate_of_birth());
+            } catch (DateTimeParseException e) {
+                throw new ValidationException("Date of birth must be in the format yyyy-MM-dd");
+            }
+        }
+
+        LocalDateTime timeOfInteraction = LocalDateTime.now();
+        append(new JournalRecord(agent.getId(), timeOfInteraction, request));
+        return ClientEntryResponse.builder()
+                .status("SUCCESS")
+                .timeOfInteraction(timeOfInteraction.toString())
+                .build();
+    }
+
+    private void append(JournalRecord record) {
+        byte[] line;
+        try {
+            line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize client entry", e);
+        }
+
+        PendingWrite write = new PendingWrite(line, new CompletableFuture<>());
+        if (stopping || !queue.offer(write)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many client entries are waiting to be saved; please retry shortly");
+        }
+        try {
+            write.durable().get(appendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // May still reach the journal; a retry is recognised by its national ID when drained
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Client entry could not be confirmed in time; please retry");
+        } catch (ExecutionException e) {
+            log.error("Could not journal client entry: {}", e.getCause().getMessage(), e.getCause());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Client entry could not be saved; please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Client entry could not be confirmed; please retry");
+        }
+    }
+
+    /**
+     * Group commit: everything queued while the previous fsync ran is written and
+     * synced together, then all of those callers are released at once
+     */
+    private void writeLoop() {
+        List<PendingWrite> group = new ArrayList<>();
+        while (true) {
+            PendingWrite first;
+            try {
+                first = queue.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first == null) {
+                if (stopping) {
+                    break;
+                }
+                continue;
+            }
+
+            group.clear();
+            group.add(first);
+            queue.drainTo(group, groupMaxEntries - 1);
+            try {
+                ByteBuffer[] buffers = new ByteBuffer[group.size()];
+                for (int i = 0; i < buffers.length; i++) {
+                    buffers[i] = ByteBuffer.wrap(group.get(i).line());
+                }
+                while (buffers[buffers.length - 1].hasRemaining()) {
+                    activeChannel.write(buffers);
+                }
+                activeChannel.force(false);
+                long size = activeChannel.size();
+                durableMark = new DurableMark(durableMark.segment(), size);
+                group.forEach(write -> write.durable().complete(null));
+                if (size >= segmentMaxBytes) {
+                    activeChannel.close();
+                    openSegment(newSegmentPath());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not append {} client entries to the ingest journal: {}", group.size(), e.getMessage(), e);
+                group.forEach(write -> write.durable().completeExceptionally(e));
+                discardUnsynced();
+            }
+        }
+        log.info("Ingest journal writer stopped");
+    }
+
+    /**
+     * A failed append can leave part of the group past the durable mark. Cut it off, or
+     * move on to a new segment if that fails too, so the next acknowledged entries are
+     * never glued onto torn bytes and lost as a malformed line.
+     */
+    private void discardUnsynced() {
+        DurableMark mark = durableMark;
+        try {
+            if (activeChannel.size() > mark.size()) {
+                activeChannel.truncate(mark.size());
+                activeChannel.force(false);
+            }
+            return;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not cut unsynced data off {}, starting a new segment: {}", mark.segment(), e.getMessage());
+        }
+        try {
+            activeChannel.close();
+        } catch (IOException e) {
+            log.warn("Could not close ingest journal segment: {}", e.getMessage());
+        }
+        try {
+            openSegment(newSegmentPath());
+        } catch (IOException e) {
+            // The closed channel fails the next append, which lands here again
+            log.error("Could not open a new ingest journal segment: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingest.drain-interval-ms:500}")
+    public void drain() {
+        // Bounded per run so a backlog never holds a scheduler thread for long
+        long deadline = System.currentTimeMillis() + drainMaxRunMs;
+        try {
+            for (int batch = 0; batch < drainMaxBatchesPerRun && System.currentTimeMillis() < deadline; batch++) {
+                if (!drainOnce()) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not read the ingest journal: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replay up to one batch of journaled entries into the database
+     *
+     * @return whether more entries may be waiting
+     */
+    private boolean drainOnce() throws IOException {
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            return false;
+        }
+        Checkpoint position = checkpoint != null && segments.contains(checkpoint.segment())
+                ? checkpoint
+                : new Checkpoint(segments.get(0), 0);
+        int index = segments.indexOf(position.segment());
+        Path segment = position.segment();
+        DurableMark mark = durableMark;
+        boolean active = mark != null && mark.segment().equals(segment);
+        long limit = active ? mark.size() : Files.size(segment);
+
+        if (position.offset() >= limit) {
+            if (active || index == segments.size() - 1) {
+                return false;
+            }
+            // Fully drained and no longer written to
+            Files.deleteIfExists(segment);
+            saveCheckpoint(new Checkpoint(segments.get(index + 1), 0));
+            return true;
+        }
+
+        byte[] bytes = read(segment, position.offset(), (int) Math.min(limit - position.offset(), READ_BUFFER_BYTES));
+        List<String> lines = new ArrayList<>();
+        int consumed = 0;
+        for (int i = 0; i < bytes.length && lines.size() < drainBatchSize; i++) {
+            if (bytes[i] == '\n') {
+                lines.add(new String(bytes, consumed, i - consumed, StandardCharsets.UTF_8));
+                consumed = i + 1;
+            }
+        }
+        if (lines.isEmpty()) {
+            if (bytes.length == 0) {
+                return false;
+            }
+            // Only possible if the file was damaged outside the writer
+            log.error("Skipping {} unreadable bytes in {} at offset {}", bytes.length, segment, position.offset());
+            deadLetter(List.of(new String(bytes, StandardCharsets.UTF_8)), "unreadable", "unreadable journal data");
+            saveCheckpoint(new Checkpoint(segment, position.offset() + bytes.length));
+            return true;
+        }
+
+        if (!replay(lines)) {
+            return false;
+        }
+        saveCheckpoint(new Checkpoint(segment, position.offset() + consumed));
+        return true;
+    }
+
+    /**
+     * @return false when the database is unavailable and the batch must be retried later
+     */
+    private boolean replay(List<String> lines) throws IOException {
+        Map<String, List<JournalRecord>> groups = new LinkedHashMap<>();
+        Map<String, List<String>> groupLines = new LinkedHashMap<>();
+        for (String line : lines) {
+            JournalRecord record;
+            try {
+                record = objectMapper.readValue(line, JournalRecord.class);
+            } catch (JsonProcessingException e) {
+                deadLetter(List.of(line), "malformed", e.getOriginalMessage());
+                continue;
+            }
+            String key = record.agentId() + "@" + record.timeOfInteraction().toLocalDate();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+            groupLines.computeIfAbsent(key, k -> new ArrayList<>()).add(line);
+        }
+
+        for (Map.Entry<String, List<JournalRecord>> group : groups.entrySet()) {
+            List<JournalRecord> records = group.getValue();
+            List<String> recordLines = groupLines.get(group.getKey());
+            try {
+                replayGroup(records, recordLines);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent writer took one of the national IDs; find out which entry by storing one at a time
+                log.warn("Replay of {} journaled client entries for agent {} conflicted, retrying one by one: {}",
+                        records.size(), records.get(0).agentId(), e.getMostSpecificCause().getMessage());
+                for (int i = 0; i < records.size(); i++) {
+                    try {
+                        replayGroup(List.of(records.get(i)), List.of(recordLines.get(i)));
+                    } catch (DataIntegrityViolationException ex) {
+                        deadLetter(List.of(recordLines.get(i)), "conflict", ex.getMostSpecificCause().getMessage());
+                    } catch (RuntimeException ex) {
+                        if (isDatabaseUnavailable(ex)) {
+                            log.warn("Database unavailable while draining the ingest journal, will retry: {}", ex.getMessage());
+                            return false;
+                        }
+                        log.error("Could not store journaled client entry for agent {}: {}",
+                                records.get(i).agentId(), ex.getMessage(), ex);
+                        deadLetter(List.of(recordLines.get(i)), "failed", ex.getMessage());
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (isDatabaseUnavailable(e)) {
+                    // Groups already stored in this batch are skipped by national ID on the retry
+                    log.warn("Database unavailable while draining the ingest journal, will retry: {}", e.getMessage());
+                    return false;
+                }
+                log.error("Could not store {} journaled client entries for agent {}: {}",
+                        records.size(), records.get(0).agentId(), e.getMessage(), e);
+                deadLetter(recordLines, "failed", e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void replayGroup(List<JournalRecord> records, List<String> recordLines) throws IOException {
+        JournalRecord first = records.get(0);
+        ClientEntryBatchResponse response = agentService.replayClientInteractions(
+                first.agentId(),
+                first.timeOfInteraction().toLocalDate(),
+                records.stream().map(JournalRecord::entry).toList(),
+                records.stream().map(JournalRecord::timeOfInteraction).toList());
+        List<String> rejected = new ArrayList<>();
+        int alreadyStored = 0;
+        for (ClientEntryBatchResponse.EntryResult result : response.getResults()) {
+            if (result.getStatus() != ClientEntryBatchResponse.Status.REJECTED) {
+                continue;
+            }
+            if (AgentService.NATIONAL_ID_ALREADY_RECORDED.equals(result.getMessage())) {
+                // Stored by an earlier drain that died before its checkpoint, or by a retried request
+                alreadyStored++;
+            } else {
+                rejected.add(recordLines.get(result.getIndex()));
+                log.warn("Journaled client entry {} for agent {} was not stored: {}",
+                        result.getNationalId(), first.agentId(), result.getMessage());
+            }
+        }
+        if (alreadyStored > 0) {
+            log.debug("Skipped {} journaled client entries for agent {} that were already stored",
+                    alreadyStored, first.agentId());
+            meterRegistry.counter("ingest.journal.already_stored").increment(alreadyStored);
+        }
+        if (!rejected.isEmpty()) {
+            deadLetter(rejected, "rejected", "rejected on replay");
+        }
+    }
+
+    private static boolean isDatabaseUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        // Zero-padded numbers, so name order is write order
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path newSegmentPath() {
+        return journalDir.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void openSegment(Path segment) throws IOException {
+        activeChannel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        durableMark = new DurableMark(segment, activeChannel.size());
+    }
+
+    /**
+     * A crash mid-append can leave a partial last line; it was never acknowledged, so drop it
+     */
+    private static void truncateTornTail(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long end = size;
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while (end > 0) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                channel.read(buffer, start);
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        end = start + i + 1;
+                        if (end < size) {
+                            log.warn("Dropping {} bytes of an unfinished entry at the end of {}", size - end, segment);
+                            channel.truncate(end);
+                            channel.force(true);
+                        }
+                        return;
+                    }
+                }
+                end = start;
+            }
+            if (size > 0) {
+                log.warn("Dropping {} bytes of an unfinished entry in {}", size, segment);
+                channel.truncate(0);
+                channel.force(true);
+            }
+        }
+    }
+
+    private static byte[] read(Path segment, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private Checkpoint readCheckpoint() throws IOException {
+        Path file = journalDir.resolve(CHECKPOINT_FILE);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        String[] parts = Files.readString(file, StandardCharsets.UTF_8).trim().split(" ");
+        if (parts.length != 2) {
+            log.warn("Ignoring unreadable ingest checkpoint; draining from the first segment");
+            return null;
+        }
+        return new Checkpoint(journalDir.resolve(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    private void saveCheckpoint(Checkpoint next) throws IOException {
+        Path file = journalDir.resolve(CHECKPOINT_FILE);
+        Path partialFile = journalDir.resolve(CHECKPOINT_FILE + ".part");
+        Files.writeString(partialFile, next.segment().getFileName() + " " + next.offset(), StandardCharsets.UTF_8);
+        Files.move(partialFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = next;
+    }
+
+    /**
+     * Keep entries that will never be stored, and count them so the loss is visible in metrics
+     */
+    private void deadLetter(List<String> lines, String reason, String detail) throws IOException {
+        meterRegistry.counter("ingest.journal.dead_lettered", "reason", reason).increment(lines.size());
+        String stamp = "# " + LocalDateTime.now() + " " + reason + ": " + detail + "\n";
+        StringBuilder content = new StringBuilder(stamp);
+        lines.forEach(line -> content.append(line).append('\n'));
+        Files.writeString(journalDir.resolve(DEAD_LETTER_FILE), content, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
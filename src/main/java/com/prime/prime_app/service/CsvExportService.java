@@ -0,0 +1,204 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.client.ClientExportRow;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Plain-text client exports for machine consumers: CSV (RFC 4180) and NDJSON.
+ * <p>
+ * Strings are escaped character by character into one buffered writer and ids are
+ * written from a scratch buffer reused for the whole export, so text and id cells build
+ * no intermediate String. Both formats use the {@link ClientExportRow} field names as
+ * column names / keys; a missing value is an empty CSV field and a JSON {@code null}.
+ */
+@Service
+public class CsvExportService {
+
+    private static final String[] COLUMNS = {
+        "id", "name", "nationalId", "phoneNumber", "insuranceType", "location",
+        "agentName", "timeOfInteraction", "policyStatus"
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    // Long.MIN_VALUE is 20 characters
+    private static final int MAX_LONG_CHARS = 20;
+
+    public void writeRowsToCsv(Stream<ClientExportRow> rows, OutputStream out) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            char[] scratch = new char[MAX_LONG_CHARS];
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(COLUMNS[i]);
+            }
+            writer.write("\r\n");
+
+            Iterator<ClientExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ClientExportRow row = iterator.next();
+                if (row.getId() != null) {
+                    writeLong(writer, row.getId(), scratch);
+                }
+                writer.write(',');
+                writeCsv(writer, row.getName());
+                writer.write(',');
+                writeCsv(writer, row.getNationalId());
+                writer.write(',');
+                writeCsv(writer, row.getPhoneNumber());
+                writer.write(',');
+                writeCsv(writer, row.getInsuranceType() != null ? row.getInsuranceType().name() : null);
+                writer.write(',');
+                writeCsv(writer, row.getLocation());
+                writer.write(',');
+                writeCsv(writer, row.getAgentName());
+                writer.write(',');
+                writeTimestamp(writer, row.getTimeOfInteraction());
+                writer.write(',');
+                writeCsv(writer, row.getPolicyStatus() != null ? row.getPolicyStatus().name() : null);
+                writer.write("\r\n");
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export clients to CSV", e);
+        }
+    }
+
+    public void writeRowsToNdjson(Stream<ClientExportRow> rows, OutputStream out) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            char[] scratch = new char[MAX_LONG_CHARS];
+            Iterator<ClientExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ClientExportRow row = iterator.next();
+                writer.write("{\"id\":");
+                if (row.getId() != null) {
+                    writeLong(writer, row.getId(), scratch);
+                } else {
+                    writer.write("null");
+                }
+                writer.write(",\"name\":");
+                writeJson(writer, row.getName());
+                writer.write(",\"nationalId\":");
+                writeJson(writer, row.getNationalId());
+                writer.write(",\"phoneNumber\":");
+                writeJson(writer, row.getPhoneNumber());
+                writer.write(",\"insuranceType\":");
+                writeJson(writer, row.getInsuranceType() != null ? row.getInsuranceType().name() : null);
+                writer.write(",\"location\":");
+                writeJson(writer, row.getLocation());
+                writer.write(",\"agentName\":");
+                writeJson(writer, row.getAgentName());
+                writer.write(",\"timeOfInteraction\":");
+                if (row.getTimeOfInteraction() != null) {
+                    writer.write('"');
+                    writeTimestamp(writer, row.getTimeOfInteraction());
+                    writer.write('"');
+                } else {
+                    writer.write("null");
+                }
+                writer.write(",\"policyStatus\":");
+                writeJson(writer, row.getPolicyStatus() != null ? row.getPolicyStatus().name() : null);
+                writer.write("}\n");
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export clients to NDJSON", e);
+        }
+    }
+
+    private static void writeCsv(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static void writeJson(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write("\\u00");
+                        writer.write(HEX[c >> 4]);
+                        writer.write(HEX[c & 0xF]);
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    private static void writeTimestamp(Writer writer, LocalDateTime value) {
+        if (value != null) {
+            // formatTo builds the text in its own StringBuilder before appending it
+            TIMESTAMP.formatTo(value, writer);
+        }
+    }
+
+    private static void writeLong(Writer writer, long value, char[] scratch) throws IOException {
+        if (value >= 0 && value < 10) {
+            writer.write((char) ('0' + value));
+            return;
+        }
+        int pos = scratch.length;
+        long v = value;
+        // Work on the negative value so Long.MIN_VALUE needs no special case
+        if (v > 0) {
+            v = -v;
+        }
+        while (v != 0) {
+            scratch[--pos] = (char) ('0' - (v % 10));
+            v /= 10;
+        }
+        if (value < 0) {
+            scratch[--pos] = '-';
+        }
+        writer.write(scratch, pos, scratch.length - pos);
+    }
+}
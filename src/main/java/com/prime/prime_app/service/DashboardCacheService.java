@@ -0,0 +1,166 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.manager.DashboardDelta;
+import com.prime.prime_app.dto.manager.ManagerDashboardResponse;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.repository.ManagerAssignedAgentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the per-manager dashboard snapshots in {@code dashboardCache} in step
+ * with the writes that change them, and announces each change as a
+ * {@link DashboardDeltaEvent} for live dashboard streams. Both run after the
+ * surrounding transaction commits.
+ * <p>
+ * Evicting after commit alone is not enough: a poll that read the old data before
+ * the commit can still put its snapshot back after the eviction. Every eviction
+ * therefore bumps a per-manager generation, and {@link #getOrBuild} only keeps a
+ * snapshot whose generation did not move while it was built. The generations live
+ * in this instance; with the shared Redis cache, a stale snapshot cached by another
+ * instance lasts at most the cache's 10 minute TTL.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCacheService {
+    public static final String CACHE_NAME = "dashboardCache";
+
+    private final CacheManager cacheManager;
+    private final ManagerAssignedAgentRepository managerAssignmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Published after commit whenever a manager's team membership changes
+     */
+    public record TeamChangedEvent(Long managerId) {
+    }
+
+    /**
+     * Published after commit for every dashboard-relevant write, once per affected manager
+     */
+    public record DashboardDeltaEvent(Long managerId, DashboardDelta delta) {
+    }
+
+    /**
+     * Cached snapshot for the manager, or a fresh one from the builder. Partial snapshots
+     * and snapshots that raced with an eviction are returned but not cached.
+     */
+    public ManagerDashboardResponse getOrBuild(Long managerId, Supplier<ManagerDashboardResponse> builder) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return builder.get();
+        }
+        ManagerDashboardResponse cached = cache.get(managerId, ManagerDashboardResponse.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        AtomicLong generation = generations.computeIfAbsent(managerId, id -> new AtomicLong());
+        long before = generation.get();
+        ManagerDashboardResponse snapshot = builder.get();
+        if (snapshot.isPartial() || generation.get() != before) {
+            return snapshot;
+        }
+        cache.put(managerId, snapshot);
+        // An eviction that slipped in between the check and the put removes it again
+        if (generation.get() != before) {
+            cache.evict(managerId);
+        }
+        return snapshot;
+    }
+
+    public void agentCheckedIn(User agent) {
+        agentChanged(agent, DashboardDelta.Type.AGENT_CHECKED_IN);
+    }
+
+    public void clientLogged(User agent) {
+        agentChanged(agent, DashboardDelta.Type.CLIENT_LOGGED);
+    }
+
+    public void teamChanged(Long managerId) {
+        DashboardDelta delta = DashboardDelta.builder()
+                .type(DashboardDelta.Type.TEAM_CHANGED)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        afterCommit(() -> {
+            evict(managerId);
+            eventPublisher.publishEvent(new TeamChangedEvent(managerId));
+            eventPublisher.publishEvent(new DashboardDeltaEvent(managerId, delta));
+        });
+    }
+
+    /**
+     * "Active today" and the weekly chart roll over at midnight without any write
+     */
+    @Scheduled(cron = "${app.dashboard.cache-reset-cron:0 0 0 * * *}")
+    public void clearAtDayRollover() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void agentChanged(User agent, DashboardDelta.Type type) {
+        Set<Long> managerIds = managerIdsOf(agent);
+        DashboardDelta delta = DashboardDelta.builder()
+                .type(type)
+                .agentId(agent.getId())
+                .agentName(agent.getName())
+                .occurredAt(LocalDateTime.now())
+                .build();
+        afterCommit(() -> managerIds.forEach(managerId -> {
+            evict(managerId);
+            eventPublisher.publishEvent(new DashboardDeltaEvent(managerId, delta));
+        }));
+    }
+
+    // Resolved inside the caller's transaction; the after-commit hook only touches the cache
+    private Set<Long> managerIdsOf(User agent) {
+        Set<Long> managerIds = new LinkedHashSet<>(managerAssignmentRepository.findManagerIdsByAgentId(agent.getId()));
+        if (agent.getManager() != null) {
+            managerIds.add(agent.getManager().getId());
+        }
+        return managerIds;
+    }
+
+    private void evict(Long managerId) {
+        generations.computeIfAbsent(managerId, id -> new AtomicLong()).incrementAndGet();
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.evict(managerId);
+            log.debug("Evicted dashboard snapshot for manager {}", managerId);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
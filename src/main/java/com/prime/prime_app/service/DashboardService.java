@@ -0,0 +1,303 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.manager.ManagerDashboardResponse;
+import com.prime.prime_app.dto.performance.TeamMetrics;
+import com.prime.prime_app.enums.TimeBucket;
+import com.prime.prime_app.repository.AttendanceRepository;
+import com.prime.prime_app.repository.ClientRepository;
+import com.prime.prime_app.repository.ManagerAssignedAgentRepository;
+import com.prime.prime_app.repository.PerformanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the manager dashboard from four independent sections: active agents,
+ * team metrics, the weekly chart and the performance buckets.
+ * <p>
+ * With {@code app.dashboard.parallel.enabled=true} the sections run concurrently on a
+ * small bounded pool. Each section gets only ids, runs in its own read-only transaction
+ * and returns plain values, so no entity or persistence context crosses threads. A section
+ * that fails or misses the deadline is replaced by an empty value and the response is
+ * flagged as partial.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+    private final ManagerAssignedAgentRepository managerAssignmentRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final ClientRepository clientRepository;
+    private final ClientCountService clientCountService;
+    private final PerformanceRepository performanceRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.dashboard.parallel.enabled:false}")
+    private boolean parallelEnabled;
+
+    @Value("${app.dashboard.parallel.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.dashboard.parallel.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.dashboard.parallel.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
+    private TransactionTemplate readOnlyTx;
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void init() {
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        if (parallelEnabled) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(poolSize);
+            executor.setMaxPoolSize(poolSize);
+            executor.setQueueCapacity(queueCapacity);
+            executor.setThreadNamePrefix("dashboard-");
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+            executor.initialize();
+            new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "dashboard", Tags.empty())
+                    .bindTo(meterRegistry);
+            log.info("Parallel dashboard sections enabled (pool size {}, timeout {} ms)", poolSize, sectionTimeoutMs);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public ManagerDashboardResponse buildDashboard(Long managerId) {
+        List<Long> agentIds = inReadOnlyTx(() -> managerAssignmentRepository.findAgentIdsByManagerId(managerId));
+        return parallelEnabled ? buildConcurrently(managerId, agentIds) : buildSequentially(managerId, agentIds);
+    }
+
+    private ManagerDashboardResponse buildSequentially(Long managerId, List<Long> agentIds) {
+        return ManagerDashboardResponse.builder()
+                .totalAgents(agentIds.size())
+                .activeAgents(inReadOnlyTx(() -> countActiveAgents(agentIds)))
+                .performanceMetrics(teamMetrics(managerId, agentIds))
+                .weeklyData(inReadOnlyTx(() -> weeklyData(managerId)))
+                .performanceData(inReadOnlyTx(() -> performanceData(agentIds)))
+                .build();
+    }
+
+    private ManagerDashboardResponse buildConcurrently(Long managerId, List<Long> agentIds) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+
+        Future<Integer> active = submit("activeAgents", () -> inReadOnlyTx(() -> countActiveAgents(agentIds)));
+        Future<Map<String, Integer>> metrics = submit("teamMetrics", () -> teamMetrics(managerId, agentIds));
+        Future<List<ManagerDashboardResponse.WeeklyDataEntry>> weekly =
+                submit("weeklyData", () -> inReadOnlyTx(() -> weeklyData(managerId)));
+        Future<List<ManagerDashboardResponse.PerformanceDataEntry>> performance =
+                submit("performanceData", () -> inReadOnlyTx(() -> performanceData(agentIds)));
+
+        PartialResult partial = new PartialResult();
+        return ManagerDashboardResponse.builder()
+                .totalAgents(agentIds.size())
+                .activeAgents(await("activeAgents", active, deadline, 0, partial))
+                .performanceMetrics(await("teamMetrics", metrics, deadline, new HashMap<>(), partial))
+                .weeklyData(await("weeklyData", weekly, deadline, new ArrayList<>(), partial))
+                .performanceData(await("performanceData", performance, deadline, new ArrayList<>(), partial))
+                .partial(partial.value)
+                .build();
+    }
+
+    private <T> Future<T> submit(String section, Supplier<T> task) {
+        try {
+            return executor.submit(() -> timed(section, task));
+        } catch (RejectedExecutionException e) {
+            // Pool saturated; compute on the request thread rather than failing the section
+            meterRegistry.counter("dashboard.section.rejected", "section", section).increment();
+            CompletableFuture<T> inline = new CompletableFuture<>();
+            try {
+                inline.complete(timed(section, task));
+            } catch (RuntimeException ex) {
+                inline.completeExceptionally(ex);
+            }
+            return inline;
+        }
+    }
+
+    private <T> T await(String section, Future<T> future, long deadline, T fallback, PartialResult partial) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Dashboard section {} timed out after {} ms", section, sectionTimeoutMs);
+            return fallback(section, "timeout", fallback, partial);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard section {} failed: {}", section, e.getCause().getMessage());
+            return fallback(section, "error", fallback, partial);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return fallback(section, "interrupted", fallback, partial);
+        }
+    }
+
+    private <T> T fallback(String section, String reason, T fallback, PartialResult partial) {
+        meterRegistry.counter("app.fallback", "path", "dashboard.section." + section, "reason", reason).increment();
+        partial.value = true;
+        return fallback;
+    }
+
+    private <T> T timed(String section, Supplier<T> task) {
+        return meterRegistry.timer("dashboard.section", "section", section).record(task);
+    }
+
+    private <T> T inReadOnlyTx(Supplier<T> work) {
+        return readOnlyTx.execute(status -> work.get());
+    }
+
+    private int countActiveAgents(List<Long> agentIds) {
+        return checkedInToday(agentIds).size();
+    }
+
+    private Map<String, Integer> teamMetrics(Long managerId, List<Long> agentIds) {
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime thirtyDaysAgo = end.minusDays(30);
+        try {
+            return inReadOnlyTx(() -> performanceRepository.getTeamPerformanceMetrics(managerId, thirtyDaysAgo, end)).toMap();
+        } catch (Exception e) {
+            // If the aggregate query fails, count directly in a fresh transaction
+            log.warn("Team metrics query failed for manager {}, using fallback: {}", managerId, e.getMessage());
+            meterRegistry.counter("app.fallback", "path", "dashboard.teamMetrics").increment();
+            return inReadOnlyTx(() -> {
+                if (agentIds.isEmpty()) {
+                    return TeamMetrics.toMap(0L, 0L, 0L);
+                }
+                long totalClients = 0;
+                for (Object[] row : clientRepository.countByAgentIdsAndDateBetween(agentIds, thirtyDaysAgo, end)) {
+                    totalClients += ((Number) row[1]).longValue();
+                }
+                long activeAgents = attendanceRepository.findCheckedInAgentIds(agentIds, thirtyDaysAgo, end).size();
+                return TeamMetrics.toMap(totalClients, activeAgents, totalClients / 30); // simple average over 30 days
+            });
+        }
+    }
+
+    private List<ManagerDashboardResponse.WeeklyDataEntry> weeklyData(Long managerId) {
+        List<ManagerDashboardResponse.WeeklyDataEntry> weeklyData = new ArrayList<>();
+
+        // Get current week start and end dates
+        LocalDate today = LocalDate.now();
+        LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        // One grouped count for the whole week instead of loading each day's clients
+        Map<LocalDate, Long> dailyCounts = clientCountService.countByManagerPerBucket(
+            managerId,
+            startOfWeek.atStartOfDay(),
+            startOfWeek.plusDays(6).atTime(23, 59, 59),
+            TimeBucket.DAY
+        );
+
+        dailyCounts.forEach((day, count) -> weeklyData.add(ManagerDashboardResponse.WeeklyDataEntry.builder()
+            .day(day.getDayOfWeek().toString().substring(0, 1))
+            .clients(count.intValue())
+            .build()));
+
+        return weeklyData;
+    }
+
+    private List<ManagerDashboardResponse.PerformanceDataEntry> performanceData(List<Long> agentIds) {
+        List<ManagerDashboardResponse.PerformanceDataEntry> performanceData = new ArrayList<>();
+
+        int totalAgents = agentIds.size();
+
+        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
+        LocalDateTime todayEnd = LocalDate.now().atTime(23, 59, 59);
+
+        // Agents who checked in today, split by whether they have logged a client yet
+        Set<Long> checkedIn = checkedInToday(agentIds);
+        Set<Long> withClients = new HashSet<>();
+        if (!checkedIn.isEmpty()) {
+            for (Object[] row : clientRepository.countByAgentIdsAndDateBetween(checkedIn, todayStart, todayEnd)) {
+                if (((Number) row[1]).longValue() > 0) {
+                    withClients.add((Long) row[0]);
+                }
+            }
+        }
+
+        int activeCount = withClients.size();
+        int startedButNoClientsCount = checkedIn.size() - activeCount;
+        int notStartedCount = totalAgents - activeCount - startedButNoClientsCount;
+
+        // Calculate percentages
+        int activePercentage = totalAgents > 0 ? (activeCount * 100) / totalAgents : 0;
+        int notStartedPercentage = totalAgents > 0 ? (notStartedCount * 100) / totalAgents : 0;
+        int startedButNoClientsPercentage = totalAgents > 0 ? (startedButNoClientsCount * 100) / totalAgents : 0;
+
+        // Add up to 100%
+        int sum = activePercentage + notStartedPercentage + startedButNoClientsPercentage;
+        if (sum != 100 && sum > 0) {
+            // Adjust to make sure percentages add up to 100%
+            activePercentage += (100 - sum);
+        }
+
+        performanceData.add(ManagerDashboardResponse.PerformanceDataEntry.builder()
+            .name("Active")
+            .value(activePercentage)
+            .build());
+
+        performanceData.add(ManagerDashboardResponse.PerformanceDataEntry.builder()
+            .name("Not Started")
+            .value(notStartedPercentage)
+            .build());
+
+        performanceData.add(ManagerDashboardResponse.PerformanceDataEntry.builder()
+            .name("Started but no clients")
+            .value(startedButNoClientsPercentage)
+            .build());
+
+        return performanceData;
+    }
+
+    private Set<Long> checkedInToday(List<Long> agentIds) {
+        if (agentIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        LocalDate today = LocalDate.now();
+        return new HashSet<>(attendanceRepository.findCheckedInAgentIds(
+                agentIds, today.atStartOfDay(), today.atTime(23, 59, 59)));
+    }
+
+    private static class PartialResult {
+        private boolean value;
+    }
+}
@@ -0,0 +1,211 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.manager.ManagerDashboardResponse;
+import com.prime.prime_app.entities.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live manager dashboards over Server-Sent Events.
+ * <p>
+ * A new stream starts with a full {@code snapshot}, then receives a {@code delta}
+ * for every check-in, client entry or team change. Writers never block on a slow
+ * client: events are queued per connection and sent by a small sender pool. When
+ * a connection's queue overflows, its backlog is dropped and replaced by a single
+ * {@code resync} event telling the client to fetch a fresh snapshot.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStreamService {
+    private final ManagerService managerService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.dashboard.stream.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${app.dashboard.stream.max-connections-per-manager:5}")
+    private int maxConnectionsPerManager;
+
+    @Value("${app.dashboard.stream.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.dashboard.stream.sender-threads:2}")
+    private int senderThreads;
+
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    // Open or opening streams per manager; a slot is reserved before the snapshot is built
+    private final Map<Long, AtomicInteger> managerSlots = new ConcurrentHashMap<>();
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-sse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("dashboard.stream.connections", connectionCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(list -> list.forEach(connection -> connection.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe(User manager) {
+        Long managerId = manager.getId();
+        List<Connection> managerConnections = connections.computeIfAbsent(managerId, id -> new CopyOnWriteArrayList<>());
+        AtomicInteger slots = managerSlots.computeIfAbsent(managerId, id -> new AtomicInteger());
+        if (!tryReserve(slots, maxConnectionsPerManager)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open dashboard streams");
+        }
+        if (!tryReserve(connectionCount, maxConnections)) {
+            slots.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Dashboard streaming is at capacity");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(managerId, emitter, queueCapacity);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        // Queue the snapshot before registering, so it is always the first event sent
+        try {
+            ManagerDashboardResponse snapshot = managerService.getDashboardData(managerId);
+            connection.offer(SseEmitter.event().name("snapshot").data(snapshot));
+        } catch (RuntimeException e) {
+            slots.decrementAndGet();
+            connectionCount.decrementAndGet();
+            throw e;
+        }
+        managerConnections.add(connection);
+        schedule(connection);
+
+        log.debug("Manager {} opened a dashboard stream ({} open)", managerId, connectionCount.get());
+        return emitter;
+    }
+
+    @EventListener
+    public void onDashboardDelta(DashboardCacheService.DashboardDeltaEvent event) {
+        List<Connection> managerConnections = connections.get(event.managerId());
+        if (managerConnections == null) {
+            return;
+        }
+        for (Connection connection : managerConnections) {
+            connection.offer(SseEmitter.event().name("delta").data(event.delta()));
+            schedule(connection);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        connections.values().forEach(list -> list.forEach(connection -> {
+            // Only idle connections need a heartbeat; a busy queue already keeps the stream alive
+            if (connection.queue.isEmpty()) {
+                connection.offer(SseEmitter.event().comment("heartbeat"));
+                schedule(connection);
+            }
+        }));
+    }
+
+    private void schedule(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = connection.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dashboard stream for manager {} closed: {}", connection.managerId, e.getMessage());
+            connection.emitter.completeWithError(e);
+            remove(connection);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event may have arrived between the last poll and releasing the flag
+        if (!connection.queue.isEmpty()) {
+            schedule(connection);
+        }
+    }
+
+    private void remove(Connection connection) {
+        List<Connection> managerConnections = connections.get(connection.managerId);
+        if (managerConnections != null && managerConnections.remove(connection)) {
+            managerSlots.get(connection.managerId).decrementAndGet();
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    // Increment only while below the limit, so the check and the reservation are one step
+    private static boolean tryReserve(AtomicInteger counter, int limit) {
+        int current;
+        do {
+            current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private static class Connection {
+        private final Long managerId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(Long managerId, SseEmitter emitter, int capacity) {
+            this.managerId = managerId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        synchronized void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                // Client is too slow to keep up; replace the backlog with one resync marker
+                queue.clear();
+                queue.offer(SseEmitter.event().name("resync").data("snapshot-required"));
+            }
+        }
+
+        synchronized SseEmitter.SseEventBuilder poll() {
+            return queue.poll();
+        }
+    }
+}
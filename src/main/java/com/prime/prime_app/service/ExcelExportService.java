@@ -1,16 +1,16 @@
 package com.prime.prime_app.service;
 
-import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.dto.client.ClientExportRow;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,11 +21,20 @@ public class ExcelExportService {
         "Agent Name", "Interaction Date", "Status"
     };
 
-    public ByteArrayInputStream exportClientsToExcel(List<Client> clients) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    // Rows kept in memory by SXSSF; older rows are flushed to a temp file
+    private static final int ROW_WINDOW = 100;
+    private static final int MAX_COLUMN_CHARS = 50;
 
+    /**
+     * Write the client sheet straight to {@code out}, consuming {@code rows} one at a time.
+     * Only {@link #ROW_WINDOW} rows are held in memory, and column widths are estimated
+     * from cell lengths as rows are written instead of measured with autoSizeColumn.
+     */
+    public void writeRowsToExcel(Stream<ClientExportRow> rows, OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
             Sheet sheet = workbook.createSheet("Clients");
+            int[] columnChars = new int[CLIENT_HEADERS.length];
 
             // Create header row
             Row headerRow = sheet.createRow(0);
@@ -35,7 +44,7 @@ public class ExcelExportService {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(CLIENT_HEADERS[i]);
                 cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
+                columnChars[i] = CLIENT_HEADERS[i].length();
             }
 
             // Create data rows
@@ -43,33 +52,48 @@ public class ExcelExportService {
             CellStyle dateStyle = createDateStyle(workbook);
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-            for (Client client : clients) {
+            Iterator<ClientExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ClientExportRow client = iterator.next();
                 Row row = sheet.createRow(rowNum++);
                 
-                row.createCell(0).setCellValue(client.getName());
-                row.createCell(1).setCellValue(client.getNationalId());
-                row.createCell(2).setCellValue(client.getPhoneNumber());
-                row.createCell(3).setCellValue(client.getInsuranceType().toString());
-                row.createCell(4).setCellValue(client.getLocation());
-                row.createCell(5).setCellValue(client.getAgent().getName());
-                
-                Cell dateCell = row.createCell(6);
-                dateCell.setCellValue(client.getTimeOfInteraction().format(dateFormatter));
-                dateCell.setCellStyle(dateStyle);
-                
-                row.createCell(7).setCellValue(client.getPolicyStatus().toString());
+                setCell(row, 0, client.getName(), columnChars);
+                setCell(row, 1, client.getNationalId(), columnChars);
+                setCell(row, 2, client.getPhoneNumber(), columnChars);
+                setCell(row, 3, client.getInsuranceType().toString(), columnChars);
+                setCell(row, 4, client.getLocation(), columnChars);
+                setCell(row, 5, client.getAgentName(), columnChars);
+                setCell(row, 6, client.getTimeOfInteraction().format(dateFormatter), columnChars)
+                        .setCellStyle(dateStyle);
+                setCell(row, 7, client.getPolicyStatus().toString(), columnChars);
             }
 
-            // Auto-size columns
+            // Estimated widths, in 1/256ths of a character, with a little padding
             for (int i = 0; i < CLIENT_HEADERS.length; i++) {
-                sheet.autoSizeColumn(i);
+                sheet.setColumnWidth(i, (Math.min(columnChars[i], MAX_COLUMN_CHARS) + 2) * 256);
             }
 
             workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
         } catch (IOException e) {
             throw new RuntimeException("Failed to export clients to Excel", e);
+        } finally {
+            // Remove the temp files backing the flushed rows
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+
+    private Cell setCell(Row row, int column, String value, int[] columnChars) {
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (value != null && value.length() > columnChars[column]) {
+            columnChars[column] = value.length();
         }
+        return cell;
     }
 
     private CellStyle createHeaderStyle(Workbook workbook) {
@@ -0,0 +1,280 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.enums.ExportFormat;
+import com.prime.prime_app.repository.ClientRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk cache of rendered client exports under {@code ${file.upload-dir}/export-cache}.
+ * <p>
+ * Files are keyed by manager, range, format and a data version taken from the team's
+ * clients in that range (count, latest id, latest interaction and latest update), so any
+ * new, edited or removed client produces a new key. The key doubles as the download's
+ * ETag. It is a weak one, since two renders of a key hold the same data but PDF and
+ * Excel stamp their own creation time. A miss is streamed to the
+ * client while the cache file is written, so caching never delays the first byte.
+ * <p>
+ * A file expires {@code app.exports.cache.ttl-minutes} after it was rendered, however
+ * often it is served, so changes the version does not see (a renamed agent) show up
+ * within the TTL. The directory is kept under {@code app.exports.cache.max-bytes} by
+ * dropping the least recently served files.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportCacheService {
+    private final ClientRepository clientRepository;
+    private final ClientExportService clientExportService;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.exports.cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${app.exports.cache.max-bytes:1073741824}")
+    private long maxCacheBytes;
+
+    // Keys whose cache file is being written right now
+    private final Set<String> caching = ConcurrentHashMap.newKeySet();
+    // Last download of each cached file; a file's modification time stays its render time
+    private final Map<Path, Instant> lastServed = new ConcurrentHashMap<>();
+    private Path cacheDir;
+
+    /**
+     * A versioned export; {@link #etag()} is the key sent as a weak ETag header
+     */
+    public record ExportVersion(String key, Long managerId, LocalDateTime startDate, LocalDateTime endDate,
+                                ExportFormat format, boolean gzip) {
+        public String etag() {
+            return "W/\"" + key + "\"";
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            cacheDir = Paths.get(uploadDir, "export-cache").toAbsolutePath().normalize();
+            Files.createDirectories(cacheDir);
+        } catch (IOException e) {
+            log.error("Could not create export cache directory: {}", e.getMessage(), e);
+            throw new RuntimeException("Could not initialize export cache", e);
+        }
+    }
+
+    /**
+     * Resolve the current version of an export; one aggregate query, no rendering
+     */
+    public ExportVersion resolve(Long managerId, LocalDateTime startDate, LocalDateTime endDate,
+                                 ExportFormat format, boolean gzip) {
+        List<Object[]> rows = clientRepository.findExportVersionByManager(managerId, startDate, endDate);
+        Object[] version = rows.isEmpty() ? new Object[4] : rows.get(0);
+
+        String source = String.join("|", String.valueOf(managerId), String.valueOf(startDate),
+                String.valueOf(endDate), format.name(), String.valueOf(gzip),
+                String.valueOf(version[0]), String.valueOf(version[1]),
+                String.valueOf(version[2]), String.valueOf(version[3]));
+        return new ExportVersion(sha256(source), managerId, startDate, endDate, format, gzip);
+    }
+
+    /**
+     * Body that writes this version of the export. A hit copies the cached file. On a
+     * miss the export is streamed to the client as it renders, so the first bytes go
+     * out straight away, and the same bytes are written to the cache file alongside.
+     * A request that arrives while another one is filling the cache for the same key
+     * streams its own uncached render rather than waiting for the whole file.
+     */
+    public StreamingResponseBody stream(ExportVersion version) {
+        return out -> {
+            Path target = cacheDir.resolve(version.key() + "." + version.format().getExtension() + (version.gzip() ? ".gz" : ""));
+            if (Files.exists(target)) {
+                lastServed.put(target, Instant.now());
+                try {
+                    Files.copy(target, out);
+                    return;
+                } catch (NoSuchFileException e) {
+                    // Swept between the check and the copy; render it again
+                }
+            }
+
+            if (!caching.add(version.key())) {
+                renderTo(version, out);
+                return;
+            }
+            try {
+                renderAndCache(version, target, out);
+            } finally {
+                caching.remove(version.key());
+            }
+        };
+    }
+
+    /**
+     * Remove cached exports rendered more than the TTL ago, then the least recently
+     * served ones while the directory is over its size limit
+     */
+    @Scheduled(fixedDelayString = "${app.exports.cache.cleanup-ms:600000}")
+    public void cleanupExpired() {
+        Instant cutoff = Instant.now().minusSeconds(ttlMinutes * 60);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(file);
+                    lastServed.remove(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep export cache directory: {}", e.getMessage());
+        }
+        enforceSizeLimit();
+    }
+
+    private synchronized void enforceSizeLimit() {
+        List<Path> cached = new ArrayList<>();
+        Map<Path, Long> sizes = new HashMap<>();
+        Map<Path, Instant> servedAt = new HashMap<>();
+        long total = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir)) {
+            for (Path file : files) {
+                // Renders in progress are not ours to remove
+                if (file.getFileName().toString().endsWith(".part")) {
+                    continue;
+                }
+                try {
+                    long size = Files.size(file);
+                    sizes.put(file, size);
+                    // Files not served since a restart count as served when they were rendered
+                    servedAt.put(file, lastServed.getOrDefault(file, Files.getLastModifiedTime(file).toInstant()));
+                    cached.add(file);
+                    total += size;
+                } catch (NoSuchFileException e) {
+                    // Removed concurrently
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not measure export cache directory: {}", e.getMessage());
+            return;
+        }
+        if (total <= maxCacheBytes) {
+            return;
+        }
+
+        cached.sort(Comparator.comparing(servedAt::get));
+        for (Path file : cached) {
+            if (total <= maxCacheBytes) {
+                break;
+            }
+            deleteQuietly(file);
+            lastServed.remove(file);
+            total -= sizes.get(file);
+        }
+        log.debug("Trimmed export cache to {} bytes", total);
+    }
+
+    private void renderAndCache(ExportVersion version, Path target, OutputStream out) throws IOException {
+        Path partial = cacheDir.resolve(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        boolean complete = false;
+        try {
+            try (OutputStream file = Files.newOutputStream(partial)) {
+                renderTo(version, new TeeOutputStream(out, file));
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                // Failed render or client gone: nothing half-written may be served later
+                deleteQuietly(partial);
+            }
+        }
+        // Readers only ever see a complete file
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Cached {} export for manager {} as {}", version.format(), version.managerId(), target.getFileName());
+        enforceSizeLimit();
+    }
+
+    private void renderTo(ExportVersion version, OutputStream out) throws IOException {
+        clientExportService.exportTeamClients(version.managerId(), version.startDate(), version.endDate(),
+                version.format(), version.gzip(), out);
+    }
+
+    /**
+     * Writes every byte to the response and the cache file
+     */
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream primary;
+        private final OutputStream copy;
+
+        private TeeOutputStream(OutputStream primary, OutputStream copy) {
+            this.primary = primary;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+            copy.flush();
+        }
+
+        @Override
+        public void close() {
+            // The response stream belongs to the container and the file to the caller
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete export cache file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.entities.Role;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.exception.ResourceNotFoundException;
+import com.prime.prime_app.repository.AgentDailyReportRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Serves stored reports and profile images straight from disk.
+ * <p>
+ * Supports conditional requests, single byte-range requests (so interrupted downloads
+ * can resume) and a precompressed {@code .gz} sibling when the client accepts gzip.
+ * Large bodies are handed to Tomcat's sendfile, which writes them from the poller
+ * without a request thread or heap buffer; otherwise the file channel is transferred
+ * to the response directly.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileDeliveryService {
+    // Tomcat request attributes for sendfile (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AgentDailyReportRepository reportRepository;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.files.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    private Path reportsDir;
+    private Path profileImagesDir;
+
+    @PostConstruct
+    public void init() {
+        reportsDir = Paths.get(uploadDir, "reports").toAbsolutePath().normalize();
+        profileImagesDir = Paths.get(uploadDir, "profile-images").toAbsolutePath().normalize();
+    }
+
+    /**
+     * Serve a stored daily report to its agent, the agent's manager or an admin.
+     * Anyone else gets the same 404 as for a missing file.
+     */
+    public void deliverReport(User user, String filename, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        Path file = resolve(reportsDir, filename);
+        List<Object[]> owners = reportRepository.findOwnerIdsByPdfPath("/reports/" + filename);
+        if (owners.isEmpty() || !canRead(user, owners.get(0))) {
+            throw new ResourceNotFoundException("Report not found");
+        }
+        deliver(file, MediaType.APPLICATION_PDF_VALUE, filename, false, request, response);
+    }
+
+    public void deliverProfileImage(String filename, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        Path file = resolve(profileImagesDir, filename);
+        String contentType = MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+        deliver(file, contentType, filename, true, request, response);
+    }
+
+    private void deliver(Path file, String contentType, String filename, boolean inline,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path body = file;
+        boolean gzip = false;
+        if (acceptsGzip(request)) {
+            Path compressed = file.resolveSibling(file.getFileName() + ".gz");
+            if (Files.isRegularFile(compressed)) {
+                body = compressed;
+                gzip = true;
+            }
+        }
+
+        long length = Files.size(body);
+        long lastModified = Files.getLastModifiedTime(body).toMillis();
+        // Each encoding is its own representation, so it gets its own validator
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + (gzip ? "-gz" : "") + "\"";
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.builder(inline ? "inline" : "attachment").filename(filename).build().toString());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0 && rangeApplies(request, etag, lastModified)) {
+            List<HttpRange> ranges = parseRanges(rangeHeader);
+            // Multiple ranges are answered with the whole file, which the spec allows
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, body.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static Path resolve(Path dir, String filename) {
+        if (filename == null || filename.isBlank() || filename.startsWith(".")
+                || filename.contains("/") || filename.contains("\\")) {
+            throw new ResourceNotFoundException("File not found");
+        }
+        Path file = dir.resolve(filename).normalize();
+        // Ensure the file is within the target directory
+        if (!dir.equals(file.getParent()) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("File not found");
+        }
+        return file;
+    }
+
+    private static boolean canRead(User user, Object[] owner) {
+        Long agentId = (Long) owner[0];
+        Long managerId = (Long) owner[1];
+        return user.getPrimaryRole() == Role.RoleType.ROLE_ADMIN
+                || Objects.equals(user.getId(), agentId)
+                || Objects.equals(user.getId(), managerId);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    /**
+     * If-Range: only honour the Range header when the client's copy is still current
+     */
+    private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return since != -1 && lastModified / 1000 <= since / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static List<HttpRange> parseRanges(String header) {
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed Range header '{}': {}", header, e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.prime.prime_app.service;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
@@ -129,7 +133,10 @@ public class FileStorageService {
             }
             
             // Copy the input stream to the destination file
+            Path compressedFile = destinationFile.resolveSibling(filename + ".gz");
+            Files.deleteIfExists(compressedFile);
             Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+            writeCompressedVariant(destinationFile, compressedFile);
             log.info("Successfully saved report to: {}", destinationFile);
             
             // Return the relative path
@@ -139,4 +146,72 @@ public class FileStorageService {
             throw new RuntimeException("Failed to store PDF report: " + e.getMessage(), e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Store a PDF report by letting {@code writer} stream it straight to disk
+     *
+     * @param filename The filename to use
+     * @param writer Writes the PDF content to the given stream
+     * @return The path to the stored file
+     */
+    public String storePdfReport(String filename, Consumer<OutputStream> writer) {
+        try {
+            Path reportsDir = Paths.get(uploadDir + "/reports");
+            Path destinationFile = reportsDir.resolve(Paths.get(filename)).normalize().toAbsolutePath();
+
+            // Ensure the file is within the target directory
+            if (!destinationFile.getParent().equals(reportsDir.toAbsolutePath())) {
+                throw new RuntimeException("Cannot store file outside current directory");
+            }
+
+            // Write beside the target and move it into place, so a half-written report is never served
+            Path partialFile = destinationFile.resolveSibling(filename + ".part");
+            try (OutputStream out = Files.newOutputStream(partialFile)) {
+                writer.accept(out);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(partialFile);
+                throw e;
+            }
+            // Drop the stale compressed copy first so it is never served for the new report
+            Path compressedFile = destinationFile.resolveSibling(filename + ".gz");
+            Files.deleteIfExists(compressedFile);
+            Files.move(partialFile, destinationFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeCompressedVariant(destinationFile, compressedFile);
+            log.info("Successfully saved report to: {}", destinationFile);
+
+            return "/reports/" + filename;
+        } catch (IOException e) {
+            log.error("Failed to store PDF report: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to store PDF report: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write a gzip copy next to a stored report for clients that accept gzip. The copy is
+     * only kept when it is meaningfully smaller; failures just mean no compressed variant.
+     */
+    private void writeCompressedVariant(Path source, Path compressedFile) {
+        Path partialFile = compressedFile.resolveSibling(compressedFile.getFileName() + ".part");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partialFile), 8192) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                Files.copy(source, out);
+            }
+            if (Files.size(partialFile) < Files.size(source) * 9 / 10) {
+                Files.move(partialFile, compressedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(partialFile);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write compressed copy of {}: {}", source, e.getMessage());
+            try {
+                Files.deleteIfExists(partialFile);
+            } catch (IOException ignored) {
+                // Nothing more to clean up
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.prime.prime_app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response when a client retries a write with the same
+ * {@code Idempotency-Key} header.
+ * <p>
+ * Keys are scoped by endpoint and principal and kept in a bounded in-memory map, so a
+ * retry costs one map lookup and never reaches the database. Optionally, completed
+ * responses are also written to Redis so a retry that lands on another instance is
+ * answered the same way. A retry that arrives while the first attempt is still running
+ * gets 409, and reusing a key for a different request body gets 422; bodies are compared
+ * by the SHA-256 of their JSON form. Only successful
+ * responses are kept; a failed attempt frees its key so the client can try again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String REDIS_PREFIX = "idempotency:";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectProvider<RedisTemplate<String, Object>> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.idempotency.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    private long ttlMillis;
+    private RedisTemplate<String, Object> redisTemplate;
+
+    // Insertion-ordered, so the head is always the oldest key
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long createdAt;
+        // Null while the first attempt is running
+        private volatile StoredResponse response;
+
+        private Entry(String fingerprint, long createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StoredResponse {
+        private String fingerprint;
+        private int status;
+        private Object body;
+    }
+
+    @PostConstruct
+    public void init() {
+        ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        if (redisEnabled) {
+            redisTemplate = redisTemplateProvider.getIfAvailable();
+            if (redisTemplate == null) {
+                log.warn("Idempotency keys requested in Redis but no RedisTemplate is available; keeping them in memory only");
+            }
+        }
+    }
+
+    /**
+     * Run a write at most once per idempotency key. Without a key, or without an
+     * authenticated principal to scope it to, the action simply runs.
+     *
+     * @param scope   the endpoint, so one key cannot replay another endpoint's response
+     * @param key     the client's Idempotency-Key header, may be null
+     * @param request the request body, used to detect a key reused for a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (key == null || key.isBlank() || authentication == null) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = scope + ":" + authentication.getName() + ":" + key;
+        String fingerprint = fingerprint(request);
+        long now = System.currentTimeMillis();
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(storeKey);
+            if (entry != null && now - entry.createdAt > ttlMillis) {
+                entries.remove(storeKey);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(fingerprint, now);
+                entries.put(storeKey, entry);
+                owner = true;
+            }
+        }
+
+        StoredResponse stored = entry.response;
+        if (owner) {
+            // Not seen here; another instance may have answered it already
+            stored = readShared(storeKey);
+            if (stored == null) {
+                return run(storeKey, fingerprint, action);
+            }
+            entry.response = stored;
+        } else if (stored == null) {
+            if (!entry.fingerprint.equals(fingerprint)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used for a different request");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still being processed");
+        }
+
+        if (!fingerprint.equals(stored.getFingerprint())) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+        log.debug("Replaying stored response for {} key {}", scope, key);
+        return ResponseEntity.status(stored.getStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body((T) stored.getBody());
+    }
+
+    private <T> ResponseEntity<T> run(String storeKey, String fingerprint, Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(storeKey);
+            throw e;
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            release(storeKey);
+            return response;
+        }
+        StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(), response.getBody());
+        synchronized (entries) {
+            Entry owned = entries.get(storeKey);
+            if (owned != null) {
+                owned.response = stored;
+            }
+        }
+        writeShared(storeKey, stored);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.createdAt >= cutoff) {
+                    break;
+                }
+                iterator.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    /**
+     * SHA-256 of the request as JSON, so two different bodies practically never share a
+     * fingerprint and a retried key is compared on content rather than identity
+     */
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize request for its idempotency fingerprint", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void release(String storeKey) {
+        synchronized (entries) {
+            Entry entry = entries.get(storeKey);
+            if (entry != null && entry.response == null) {
+                entries.remove(storeKey);
+            }
+        }
+    }
+
+    private StoredResponse readShared(String storeKey) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            Object value = redisTemplate.opsForValue().get(REDIS_PREFIX + storeKey);
+            return value instanceof StoredResponse stored ? stored : null;
+        } catch (RuntimeException e) {
+            log.warn("Could not read idempotency key from Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeShared(String storeKey, StoredResponse stored) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(REDIS_PREFIX + storeKey, stored, Duration.ofMillis(ttlMillis));
+        } catch (RuntimeException e) {
+            log.warn("Could not store idempotency key in Redis: {}", e.getMessage());
+        }
+    }
+}
@@ -6,21 +6,15 @@ import com.prime.prime_app.dto.manager.ManagerDashboardResponse;
 import com.prime.prime_app.dto.manager.ReportsResponse;
 import com.prime.prime_app.dto.manager.ReportsRequest;
 import com.prime.prime_app.entities.Attendance;
-import com.prime.prime_app.entities.Client;
 import com.prime.prime_app.entities.ManagerAssignedAgent;
 import com.prime.prime_app.entities.Role;
 import com.prime.prime_app.entities.User;
-import com.prime.prime_app.entities.AgentComment;
-import com.prime.prime_app.entities.WorkLog;
 import com.prime.prime_app.exception.ResourceNotFoundException;
 import com.prime.prime_app.repository.AttendanceRepository;
 import com.prime.prime_app.repository.ClientRepository;
 import com.prime.prime_app.repository.ManagerAssignedAgentRepository;
-import com.prime.prime_app.repository.PerformanceRepository;
 import com.prime.prime_app.repository.RoleRepository;
 import com.prime.prime_app.repository.UserRepository;
-import com.prime.prime_app.repository.AgentCommentRepository;
-import com.prime.prime_app.repository.WorkLogRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -48,25 +42,47 @@ public class ManagerService {
     private final AttendanceRepository attendanceRepository;
     private final ClientRepository clientRepository;
     private final ManagerAssignedAgentRepository managerAssignmentRepository;
-    private final PerformanceRepository performanceRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-    private final AgentCommentRepository agentCommentRepository;
-    private final WorkLogRepository workLogRepository;
+    private final TeamReportService teamReportService;
+    private final DashboardCacheService dashboardCacheService;
+    private final DashboardService dashboardService;
 
+    /**
+     * Build the agent roster for a manager with a fixed number of queries:
+     * assignments (with agents), latest attendance per agent and today's client
+     * counts are each loaded in one grouped query and joined in memory.
+     */
     @Transactional(readOnly = true)
     public List<AgentListResponse.AgentDto> getAgentsWithStatus(Long managerId) {
-        User manager = userRepository.findById(managerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Manager not found"));
+        if (!userRepository.existsById(managerId)) {
+            throw new ResourceNotFoundException("Manager not found");
+        }
+
+        List<ManagerAssignedAgent> assignments = managerAssignmentRepository.findByManagerIdWithAgent(managerId);
+        if (assignments.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> agentIds = assignments.stream()
+                .map(assignment -> assignment.getAgent().getId())
+                .collect(Collectors.toList());
 
-        return managerAssignmentRepository.findByManager(manager).stream()
+        Map<Long, Attendance> latestAttendanceByAgent = new HashMap<>();
+        for (Attendance attendance : attendanceRepository.findLatestByAgentIds(agentIds)) {
+            // Keep the first row if two check-ins share the same timestamp
+            latestAttendanceByAgent.putIfAbsent(attendance.getAgent().getId(), attendance);
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<Long, Integer> todaysClientsByAgent = toCountMap(clientRepository.countByAgentIdsAndDateBetween(
+                agentIds, today.atStartOfDay(), today.atTime(23, 59, 59)));
+
+        return assignments.stream()
                 .map(assignment -> {
                     User agent = assignment.getAgent();
-                    Attendance latestAttendance = attendanceRepository.findLatestByAgent(agent.getId())
-                            .orElse(null);
-
-                    String attendanceStatus = getColorCodedStatus(latestAttendance);
-                    int clientsServed = clientRepository.countTodaysClientsByAgent(agent.getId());
+                    int clientsServed = todaysClientsByAgent.getOrDefault(agent.getId(), 0);
+                    String attendanceStatus = getColorCodedStatus(latestAttendanceByAgent.get(agent.getId()), clientsServed);
 
                     return AgentListResponse.AgentDto.builder()
                             .id(agent.getId().toString())
@@ -82,13 +98,11 @@ public class ManagerService {
                 .collect(Collectors.toList());
     }
 
-    private String getColorCodedStatus(Attendance attendance) {
+    private String getColorCodedStatus(Attendance attendance, int clientCount) {
         if (attendance == null) {
             return "NO_WORK:#FF0000"; // Red for no attendance
         }
 
-        int clientCount = clientRepository.countTodaysClientsByAgent(attendance.getAgent().getId());
-
         if (attendance.getStatus() == Attendance.AttendanceStatus.PRESENT && clientCount > 0) {
             return "WORKED:#00FF00"; // Green for worked with clients
         } else if (attendance.getStatus() == Attendance.AttendanceStatus.PRESENT) {
@@ -98,6 +112,17 @@ public class ManagerService {
         }
     }
 
+    /**
+     * Convert (agentId, count) rows from a grouped query into a lookup map
+     */
+    private Map<Long, Integer> toCountMap(List<Object[]> rows) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+
     @Transactional
     public void designateLeader(Long managerId, Long agentId) {
         User manager = userRepository.findById(managerId)
@@ -127,6 +152,7 @@ public class ManagerService {
 
         assignment.setLeader(true);
         managerAssignmentRepository.save(assignment);
+        dashboardCacheService.teamChanged(managerId);
     }
 
     @Transactional
@@ -184,6 +210,7 @@ public class ManagerService {
                 .build();
 
         managerAssignmentRepository.save(assignment);
+        dashboardCacheService.teamChanged(managerId);
     }
 
     @Transactional
@@ -199,6 +226,7 @@ public class ManagerService {
         // Remove manager reference
         agent.setManager(null);
         userRepository.save(agent);
+        dashboardCacheService.teamChanged(managerId);
     }
 
     @Transactional
@@ -250,214 +278,26 @@ public class ManagerService {
         agent.setUpdatedAt(LocalDateTime.now());
 
         userRepository.save(agent);
+        dashboardCacheService.teamChanged(managerId);
     }
 
     @Transactional(readOnly = true)
     public List<ReportsResponse.AgentReportDto> generateReports(Long managerId, LocalDateTime startDate, LocalDateTime endDate) {
-        User manager = userRepository.findById(managerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Manager not found"));
-
-        return managerAssignmentRepository.findByManager(manager).stream()
-                .map(assignment -> {
-                    User agent = assignment.getAgent();
-
-                    int totalClients = clientRepository.countByAgentAndDateBetween(agent.getId(), startDate, endDate);
-                    int daysWorked = attendanceRepository.countWorkingDaysByAgent(agent.getId(), startDate, endDate);
-                    List<String> sectorsWorked = clientRepository.findDistinctSectorsByAgent(agent.getId(), startDate, endDate);
-
-                    // Get today's comment for the agent if it exists
-                    String dailyComment = "";
-                    try {
-                        Optional<AgentComment> comment = agentCommentRepository.findByAgentAndCommentDate(agent, LocalDate.now());
-                        if (comment.isPresent()) {
-                            dailyComment = comment.get().getCommentText();
-                        }
-                    } catch (Exception e) {
-                        // Ignore errors when fetching comments
-                    }
-
-                    return ReportsResponse.AgentReportDto.builder()
-                            .agentId(agent.getId().toString())
-                            .agentName(agent.getName())
-                            .totalClientsEngaged(totalClients)
-                            .sectorsWorkedIn(sectorsWorked)
-                            .daysWorked(daysWorked)
-                            .dailyComment(dailyComment)
-                            .build();
-                })
-                .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<Client> getClientsForExport(Long managerId, LocalDateTime startDate, LocalDateTime endDate) {
-        User manager = userRepository.findById(managerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Manager not found"));
-
-        return clientRepository.findByManagerAndDateBetween(manager, startDate, endDate);
-    }
-
-    @Transactional(readOnly = true)
-    public ManagerDashboardResponse getDashboardData(Long managerId) {
-        User manager = userRepository.findById(managerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Manager not found"));
-
-        List<ManagerAssignedAgent> assignments = managerAssignmentRepository.findByManager(manager);
-
-        // Get real-time metrics
-        int totalAgents = assignments.size();
-        int activeAgents = (int) assignments.stream()
-                .map(ManagerAssignedAgent::getAgent)
-                .filter(agent -> attendanceRepository.existsByAgentAndCheckInTimeBetween(
-                        agent,
-                        LocalDateTime.now().toLocalDate().atStartOfDay(),
-                        LocalDateTime.now().toLocalDate().plusDays(1).atStartOfDay()
-                ))
-                .count();
-
-        // Get performance metrics from database
-        Map<String, Integer> performanceMetrics = new HashMap<>();
-        
-        // Try to get metrics from repository
-        try {
-            performanceMetrics = performanceRepository.getTeamPerformanceMetrics(
-                    manager.getId(),
-                    LocalDateTime.now().minusDays(30),
-                    LocalDateTime.now()
-            );
-        } catch (Exception e) {
-            // If repository query fails, calculate directly from data
-            // Count all clients in the last 30 days
-            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            int totalClients = 0;
-            
-            for (ManagerAssignedAgent assignment : assignments) {
-                User agent = assignment.getAgent();
-                List<Client> clients = clientRepository.findByAgentAndDateBetween(
-                    agent,
-                    thirtyDaysAgo,
-                    LocalDateTime.now()
-                );
-                totalClients += clients.size();
-            }
-            
-            // Calculate average clients per day
-            int avgClientsPerDay = 0;
-            if (totalClients > 0) {
-                avgClientsPerDay = totalClients / 30; // simple average over 30 days
-            }
-            
-            performanceMetrics.put("totalClients", totalClients);
-            performanceMetrics.put("activeAgents", activeAgents);
-            performanceMetrics.put("avgClientsPerDay", avgClientsPerDay);
+        if (!userRepository.existsById(managerId)) {
+            throw new ResourceNotFoundException("Manager not found");
         }
-        
-        // Generate weekly data
-        List<ManagerDashboardResponse.WeeklyDataEntry> weeklyData = generateWeeklyData(manager);
-        
-        // Generate performance data
-        List<ManagerDashboardResponse.PerformanceDataEntry> performanceData = generatePerformanceData(assignments);
-
-        return ManagerDashboardResponse.builder()
-                .totalAgents(totalAgents)
-                .activeAgents(activeAgents)
-                .performanceMetrics(performanceMetrics)
-                .weeklyData(weeklyData)
-                .performanceData(performanceData)
-                .build();
-    }
 
-    /**
-     * Generate weekly data for dashboard
-     */
-    private List<ManagerDashboardResponse.WeeklyDataEntry> generateWeeklyData(User manager) {
-        List<ManagerDashboardResponse.WeeklyDataEntry> weeklyData = new ArrayList<>();
-        
-        // Get current week start and end dates
-        LocalDate today = LocalDate.now();
-        LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-        
-        for (int i = 0; i < 7; i++) {
-            LocalDate currentDay = startOfWeek.plusDays(i);
-            String dayLetter = currentDay.getDayOfWeek().toString().substring(0, 1);
-            
-            // Get actual client count from database for this day
-            List<Client> clients = clientRepository.findByManagerAndDateBetween(
-                manager, 
-                currentDay.atStartOfDay(), 
-                currentDay.atTime(23, 59, 59)
-            );
-            
-            int clientCount = clients != null ? clients.size() : 0;
-            
-            weeklyData.add(ManagerDashboardResponse.WeeklyDataEntry.builder()
-                .day(dayLetter)
-                .clients(clientCount)
-                .build());
-        }
-        
-        return weeklyData;
+        return teamReportService.generateReport(managerId, startDate.toLocalDate(), endDate.toLocalDate())
+                .getAgentReports();
     }
 
-    /**
-     * Generate performance data for dashboard
-     */
-    private List<ManagerDashboardResponse.PerformanceDataEntry> generatePerformanceData(List<ManagerAssignedAgent> assignments) {
-        List<ManagerDashboardResponse.PerformanceDataEntry> performanceData = new ArrayList<>();
-        
-        int totalAgents = assignments.size();
-        
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(23, 59, 59);
-        
-        // Count active agents (who have checked in today)
-        int activeCount = 0;
-        int startedButNoClientsCount = 0;
-        
-        for (ManagerAssignedAgent assignment : assignments) {
-            User agent = assignment.getAgent();
-            boolean checkedIn = attendanceRepository.existsByAgentAndCheckInTimeBetween(agent, todayStart, todayEnd);
-            
-            if (checkedIn) {
-                // Check if they have clients
-                Long clientCount = clientRepository.countByAgentAndTimeRange(agent, todayStart, todayEnd);
-                if (clientCount != null && clientCount > 0) {
-                    activeCount++;
-                } else {
-                    startedButNoClientsCount++;
-                }
+    public ManagerDashboardResponse getDashboardData(Long managerId) {
+        return dashboardCacheService.getOrBuild(managerId, () -> {
+            if (!userRepository.existsById(managerId)) {
+                throw new ResourceNotFoundException("Manager not found");
             }
-        }
-        
-        int notStartedCount = totalAgents - activeCount - startedButNoClientsCount;
-        
-        // Calculate percentages
-        int activePercentage = totalAgents > 0 ? (activeCount * 100) / totalAgents : 0;
-        int notStartedPercentage = totalAgents > 0 ? (notStartedCount * 100) / totalAgents : 0;
-        int startedButNoClientsPercentage = totalAgents > 0 ? (startedButNoClientsCount * 100) / totalAgents : 0;
-        
-        // Add up to 100%
-        int sum = activePercentage + notStartedPercentage + startedButNoClientsPercentage;
-        if (sum != 100 && sum > 0) {
-            // Adjust to make sure percentages add up to 100%
-            activePercentage += (100 - sum);
-        }
-        
-        performanceData.add(ManagerDashboardResponse.PerformanceDataEntry.builder()
-            .name("Active")
-            .value(activePercentage)
-            .build());
-            
-        performanceData.add(ManagerDashboardResponse.PerformanceDataEntry.builder()
-            .name("Not Started")
-            .value(notStartedPercentage)
-            .build());
-            
-        performanceData.add(ManagerDashboardResponse.PerformanceDataEntry.builder()
-            .name("Started but no clients")
-            .value(startedButNoClientsPercentage)
-            .build());
-        
-        return performanceData;
+            return dashboardService.buildDashboard(managerId);
+        });
     }
 
     /**
@@ -484,133 +324,7 @@ public class ManagerService {
                 throw new IllegalArgumentException("Invalid period specified");
         }
 
-        // Call the existing method with calculated date range
-        List<ReportsResponse.AgentReportDto> agentReports = generateReports(
-                manager.getId(),
-                startDate.atStartOfDay(),
-                endDate.atTime(23, 59, 59)
-        );
-
-        // Add detailed data to each agent report
-        for (ReportsResponse.AgentReportDto agentReport : agentReports) {
-            User agent = userRepository.findById(Long.valueOf(agentReport.getAgentId()))
-                    .orElse(null);
-
-            if (agent != null) {
-                Map<String, Integer> dailyClientsCount = getDailyClientsCount(agent, startDate, endDate);
-                agentReport.setDailyClientsCount(dailyClientsCount);
-
-                Map<String, List<String>> dailySectors = getDailySectors(agent, startDate, endDate);
-                agentReport.setDailySectors(dailySectors);
-
-                Map<String, String> workStatus = getWorkStatus(agent, startDate, endDate);
-                agentReport.setWorkStatus(workStatus);
-            }
-        }
-        return ReportsResponse.builder()
-                .agentReports(agentReports)
-                .build();
-    }
-
-    /**
-     * Get daily client count data
-     */
-    private Map<String, Integer> getDailyClientsCount(User agent, LocalDate startDate, LocalDate endDate) {
-        Map<String, Integer> result = new HashMap<>();
-
-        // Fill in each day from start to end date
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            String dayName = date.getDayOfWeek().toString().charAt(0) +
-                    date.getDayOfWeek().toString().substring(1).toLowerCase();
-
-            // Count clients for this day
-            LocalDateTime dateStart = date.atStartOfDay();
-            LocalDateTime dateEnd = date.atTime(23, 59, 59);
-            Long count = clientRepository.countByAgentAndTimeRange(agent, dateStart, dateEnd);
-
-            result.put(dayName, count != null ? count.intValue() : 0);
-        }
-
-        return result;
-    }
-
-    /**
-     * Get daily sectors data
-     */
-    private Map<String, List<String>> getDailySectors(User agent, LocalDate startDate, LocalDate endDate) {
-        Map<String, List<String>> result = new HashMap<>();
-
-        // Fill in each day from start to end date
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            String dayName = date.getDayOfWeek().toString().charAt(0) +
-                    date.getDayOfWeek().toString().substring(1).toLowerCase();
-
-            // Get sectors from work logs for this day
-            List<String> sectors = workLogRepository.findByAgentAndDate(agent, date)
-                    .map(log -> {
-                        String sector = log.getSector();
-                        return sector != null ? List.of(sector) : new ArrayList<String>();
-                    })
-                    .orElse(new ArrayList<>());
-
-            // If no sectors from work logs, try to get from client data
-            if (sectors.isEmpty()) {
-                LocalDateTime dateStart = date.atStartOfDay();
-                LocalDateTime dateEnd = date.atTime(23, 59, 59);
-                List<String> clientSectors = clientRepository.findInsuranceTypesByAgentAndTimeRange(
-                        agent, dateStart, dateEnd);
-                if (clientSectors != null && !clientSectors.isEmpty()) {
-                    sectors = clientSectors;
-                }
-            }
-
-            result.put(dayName, sectors);
-        }
-
-        return result;
-    }
-
-    /**
-     * Get work status for each day
-     */
-    private Map<String, String> getWorkStatus(User agent, LocalDate startDate, LocalDate endDate) {
-        Map<String, String> result = new HashMap<>();
-
-        // Fill in each day from start to end date
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            String dayName = date.getDayOfWeek().toString().charAt(0) +
-                    date.getDayOfWeek().toString().substring(1).toLowerCase();
-
-            // Check if agent worked on this day
-            boolean worked = workLogRepository.findByAgentAndDate(agent, date)
-                    .map(log -> WorkLog.WorkStatus.WORKED == log.getStatus())
-                    .orElse(false);
-
-            // Check if agent had clients on this day
-            LocalDateTime dateStart = date.atStartOfDay();
-            LocalDateTime dateEnd = date.atTime(23, 59, 59);
-            Long clientCount = clientRepository.countByAgentAndTimeRange(agent, dateStart, dateEnd);
-
-            // Determine work status
-            String status;
-            if (!worked) {
-                status = "No work";
-            } else if (clientCount != null && clientCount > 0) {
-                status = "Worked";
-            } else {
-                status = "Worked but no clients";
-            }
-
-            result.put(dayName, status);
-        }
-
-        return result;
-    }
-
-    /**
-     * Get clients for export based on a period
-     */
-    public List<Client> getClientsForExport(User manager, LocalDateTime startDate, LocalDateTime endDate) {
-        return clientRepository.findByManagerAndDateBetween(manager, startDate, endDate);
+        // All agents, days and metrics are computed in one grouped pass
+        return teamReportService.generateReport(manager.getId(), startDate, endDate);
     }
 }
\ No newline at end of file
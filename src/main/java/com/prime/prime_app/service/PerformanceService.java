@@ -3,6 +3,7 @@ package com.prime.prime_app.service;
 import com.prime.prime_app.entities.Client;
 import com.prime.prime_app.entities.Performance;
 import com.prime.prime_app.entities.User;
+import com.prime.prime_app.enums.TimeBucket;
 import com.prime.prime_app.repository.AttendanceRepository;
 import com.prime.prime_app.repository.ClientRepository;
 import com.prime.prime_app.repository.PerformanceRepository;
@@ -26,6 +27,7 @@ public class PerformanceService {
 
     private final PerformanceRepository performanceRepository;
     private final ClientRepository clientRepository;
+    private final ClientCountService clientCountService;
     private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
     
@@ -115,22 +117,14 @@ public class PerformanceService {
         
         // Calculate trend data
         List<Map<String, Object>> trendData = new ArrayList<>();
-        LocalDate current = startDate.toLocalDate();
-        LocalDate end = endDate.toLocalDate();
-        
-        while (!current.isAfter(end)) {
-            LocalDateTime dayStart = current.atStartOfDay();
-            LocalDateTime dayEnd = current.plusDays(1).atStartOfDay();
-            
-            int dayClients = clientRepository.countByAgentAndDateBetween(agentId, dayStart, dayEnd);
-            
+        Map<LocalDate, Long> dailyCounts = clientCountService.countByAgentPerBucket(agentId, startDate, endDate, TimeBucket.DAY);
+        
+        dailyCounts.forEach((day, count) -> {
             Map<String, Object> dayData = new HashMap<>();
-            dayData.put("date", current.toString());
-            dayData.put("clients", dayClients);
+            dayData.put("date", day.toString());
+            dayData.put("clients", count.intValue());
             trendData.add(dayData);
-            
-            current = current.plusDays(1);
-        }
+        });
         
         // Build metrics map
         metrics.put("totalClients", totalClients);
@@ -197,11 +191,9 @@ public class PerformanceService {
      */
     @Cacheable(value = "performanceCache", key = "'manager:' + #managerId + ':' + #startDate + ':' + #endDate")
     public Map<String, Object> getTeamPerformanceMetrics(Long managerId, LocalDateTime startDate, LocalDateTime endDate) {
-        // Use the existing query for team metrics
-        Map<String, Integer> rawMetrics = performanceRepository.getTeamPerformanceMetrics(managerId, startDate, endDate);
-        
-        // Convert to our standard response format
-        Map<String, Object> metrics = new HashMap<>(rawMetrics);
+        // All team aggregates in one round trip
+        Map<String, Object> metrics = new HashMap<>(
+                performanceRepository.getTeamPerformanceMetrics(managerId, startDate, endDate).toMap());
         
         // Get manager's agents
         List<User> agents = userRepository.findAgentsByManager(managerId);
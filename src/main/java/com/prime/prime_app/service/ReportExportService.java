@@ -1,9 +1,7 @@
 package com.prime.prime_app.service;
 
-import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.dto.client.ClientExportRow;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
@@ -18,11 +16,10 @@ import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import java.awt.Color;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -33,63 +30,20 @@ public class ReportExportService {
         "Agent Name", "Interaction Date", "Status"
     };
 
-    public ByteArrayInputStream exportClientsToExcel(List<Client> clients) {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    // Rows buffered in the PDF table before they are laid out and written
+    private static final int PDF_ROW_CHUNK = 100;
 
-            Sheet sheet = workbook.createSheet("Clients");
-
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            CellStyle headerStyle = createHeaderStyle(workbook);
-            
-            for (int i = 0; i < CLIENT_HEADERS.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(CLIENT_HEADERS[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Create data rows
-            int rowNum = 1;
-            CellStyle dateStyle = createDateStyle(workbook);
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-            for (Client client : clients) {
-                Row row = sheet.createRow(rowNum++);
-                
-                row.createCell(0).setCellValue(client.getName());
-                row.createCell(1).setCellValue(client.getNationalId());
-                row.createCell(2).setCellValue(client.getPhoneNumber());
-                row.createCell(3).setCellValue(client.getInsuranceType().toString());
-                row.createCell(4).setCellValue(client.getLocation());
-                row.createCell(5).setCellValue(client.getAgent().getName());
-                
-                Cell dateCell = row.createCell(6);
-                dateCell.setCellValue(client.getTimeOfInteraction().format(dateFormatter));
-                dateCell.setCellStyle(dateStyle);
-                
-                row.createCell(7).setCellValue(client.getPolicyStatus().toString());
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < CLIENT_HEADERS.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to export clients to Excel", e);
-        }
-    }
-
-    public ByteArrayInputStream exportClientsToPdf(List<Client> clients) {
+    /**
+     * Write the client report straight to {@code out}, consuming {@code rows} one at a time. The table is built in incomplete
+     * mode and added to the document every {@link #PDF_ROW_CHUNK} rows, so finished pages
+     * are written out as they fill and only one chunk of rows is held in memory. The header
+     * row repeats on every page. {@code out} is left open for the caller.
+     */
+    public void writeRowsToPdf(Stream<ClientExportRow> rows, OutputStream out) {
         Document document = new Document(PageSize.A4.rotate());
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        
         try {
-            PdfWriter.getInstance(document, out);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
             
             // Add title
@@ -102,6 +56,8 @@ public class ReportExportService {
             // Create table
             PdfPTable table = new PdfPTable(CLIENT_HEADERS.length);
             table.setWidthPercentage(100);
+            table.setComplete(false);
+            table.setHeaderRows(1);
             
             // Set headers
             Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.WHITE);
@@ -117,23 +73,34 @@ public class ReportExportService {
             Font cellFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
             
-            for (Client client : clients) {
+            int rowsInChunk = 0;
+            Iterator<ClientExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ClientExportRow client = iterator.next();
                 addCell(table, client.getName(), cellFont);
                 addCell(table, client.getNationalId(), cellFont);
                 addCell(table, client.getPhoneNumber(), cellFont);
                 addCell(table, client.getInsuranceType().toString(), cellFont);
                 addCell(table, client.getLocation(), cellFont);
-                addCell(table, client.getAgent().getName(), cellFont);
+                addCell(table, client.getAgentName(), cellFont);
                 addCell(table, client.getTimeOfInteraction().format(dateFormatter), cellFont);
                 addCell(table, client.getPolicyStatus().toString(), cellFont);
+
+                if (++rowsInChunk == PDF_ROW_CHUNK) {
+                    // Lays out and releases the rows added so far; the header is kept
+                    document.add(table);
+                    rowsInChunk = 0;
+                }
             }
             
+            table.setComplete(true);
             document.add(table);
-            document.close();
-            return new ByteArrayInputStream(out.toByteArray());
-            
         } catch (DocumentException e) {
             throw new RuntimeException("Failed to export clients to PDF", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
         }
     }
     
@@ -142,24 +109,4 @@ public class ReportExportService {
         cell.setPadding(4);
         table.addCell(cell);
     }
-
-    private CellStyle createHeaderStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        org.apache.poi.ss.usermodel.Font font = workbook.createFont();
-        font.setBold(true);
-        style.setFont(font);
-        style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        style.setBorderBottom(BorderStyle.THIN);
-        style.setBorderTop(BorderStyle.THIN);
-        style.setBorderRight(BorderStyle.THIN);
-        style.setBorderLeft(BorderStyle.THIN);
-        return style;
-    }
-
-    private CellStyle createDateStyle(Workbook workbook) {
-        CellStyle style = workbook.createCellStyle();
-        style.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
-        return style;
-    }
 }
\ No newline at end of file
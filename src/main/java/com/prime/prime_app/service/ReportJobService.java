@@ -0,0 +1,310 @@
+package com.prime.prime_app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prime.prime_app.dto.manager.ReportJobRequest;
+import com.prime.prime_app.dto.manager.ReportJobResponse;
+import com.prime.prime_app.dto.manager.ReportsResponse;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.enums.ExportFormat;
+import com.prime.prime_app.exception.ResourceNotFoundException;
+import com.prime.prime_app.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs long manager reports and exports off the request thread.
+ * <p>
+ * Jobs go to a small bounded pool, so month-end reporting holds at most
+ * {@code app.reports.jobs.pool-size} database connections no matter how many are queued.
+ * Results are written under {@code ${file.upload-dir}/report-jobs} and removed once
+ * {@code app.reports.jobs.ttl-minutes} have passed after completion.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+    private final ManagerService managerService;
+    private final UserRepository userRepository;
+    private final ClientExportService clientExportService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.reports.jobs.pool-size:2}")
+    private int poolSize;
+
+    @Value("${app.reports.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${app.reports.jobs.max-active-per-manager:3}")
+    private int maxActivePerManager;
+
+    @Value("${app.reports.jobs.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private final ConcurrentMap<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private Path jobDir;
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Location of a finished job's result file
+     */
+    public record JobResult(Path path, String contentType, String filename) {
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            jobDir = Paths.get(uploadDir, "report-jobs").toAbsolutePath().normalize();
+            Files.createDirectories(jobDir);
+        } catch (IOException e) {
+            log.error("Could not create report job directory: {}", e.getMessage(), e);
+            throw new RuntimeException("Could not initialize report job storage", e);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ReportJobResponse submit(User manager, ReportJobRequest request) {
+        validate(request);
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), manager.getId(), request);
+        // Count and register under one lock, so concurrent submits cannot both pass the limit
+        synchronized (this) {
+            long active = jobs.values().stream()
+                    .filter(existing -> existing.managerId.equals(manager.getId()) && !existing.isFinished())
+                    .count();
+            if (active >= maxActivePerManager) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many report jobs in progress; wait for one to finish");
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Report queue is full; try again shortly");
+        }
+
+        log.info("Queued report job {} ({}) for manager {}", job.id, request.getType(), manager.getId());
+        return job.toResponse();
+    }
+
+    public ReportJobResponse getStatus(User manager, String jobId) {
+        return findOwnedJob(manager, jobId).toResponse();
+    }
+
+    public List<ReportJobResponse> getJobs(User manager) {
+        return jobs.values().stream()
+                .filter(job -> job.managerId.equals(manager.getId()))
+                .sorted(Comparator.comparing((ReportJob job) -> job.createdAt).reversed())
+                .map(ReportJob::toResponse)
+                .toList();
+    }
+
+    public JobResult getResult(User manager, String jobId) {
+        ReportJob job = findOwnedJob(manager, jobId);
+        if (job.status != ReportJobResponse.Status.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Report job is " + job.status);
+        }
+        if (!Files.exists(job.resultPath)) {
+            throw new ResourceNotFoundException("Report job result has expired");
+        }
+        return new JobResult(job.resultPath, job.contentType, job.filename);
+    }
+
+    /**
+     * Drop expired jobs and their files, plus any result left behind by a previous run
+     */
+    @Scheduled(fixedDelayString = "${app.reports.jobs.cleanup-ms:300000}")
+    public void cleanupExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (job.expiresAt == null || job.expiresAt.isAfter(now)) {
+                return false;
+            }
+            deleteQuietly(job.resultPath);
+            return true;
+        });
+
+        Instant cutoff = Instant.now().minusSeconds(ttlMinutes * 60);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(jobDir)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep report job directory: {}", e.getMessage());
+        }
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobResponse.Status.RUNNING;
+        try {
+            User manager = userRepository.findById(job.managerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Manager not found"));
+            ReportJobRequest request = job.request;
+
+            if (request.getType() == ReportJobRequest.Type.REPORT) {
+                ReportsResponse report = managerService.generateReports(manager, request.getPeriod());
+                writeResult(job, job.id + ".json", out -> objectMapper.writeValue(out, report));
+                job.contentType = "application/json";
+                job.filename = "report_" + request.getPeriod().name().toLowerCase() + ".json";
+            } else {
+                ExportFormat format = ExportFormat.fromParam(request.getFormat());
+                writeResult(job, job.id + "." + format.getExtension(), out -> clientExportService.exportTeamClients(
+                        manager.getId(), request.getStartDate().atStartOfDay(), request.getEndDate().atTime(23, 59, 59),
+                        format, out));
+                job.contentType = format.getContentType();
+                job.filename = "clients_report." + format.getExtension();
+            }
+
+            job.finish(ReportJobResponse.Status.COMPLETED, null, ttlMinutes);
+            log.info("Report job {} completed", job.id);
+        } catch (Exception e) {
+            log.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            job.finish(ReportJobResponse.Status.FAILED, e.getMessage(), ttlMinutes);
+        }
+    }
+
+    private void writeResult(ReportJob job, String filename, ResultWriter writer) throws IOException {
+        Path target = jobDir.resolve(filename);
+        Path partial = jobDir.resolve(filename + ".part");
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            writer.write(out);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+        // Readers only ever see a complete file
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        job.resultPath = target;
+    }
+
+    private void validate(ReportJobRequest request) {
+        if (request.getType() == ReportJobRequest.Type.REPORT && request.getPeriod() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period is required for report jobs");
+        }
+        if (request.getType() == ReportJobRequest.Type.EXPORT) {
+            if (request.getStartDate() == null || request.getEndDate() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start and end dates are required for export jobs");
+            }
+            if (request.getEndDate().isBefore(request.getStartDate())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End date must not be before start date");
+            }
+            // Reject an unknown format now rather than as a failed job
+            ExportFormat.fromParam(request.getFormat());
+        }
+    }
+
+    private ReportJob findOwnedJob(User manager, String jobId) {
+        ReportJob job = jobs.get(jobId);
+        // Someone else's job is reported as missing rather than forbidden
+        if (job == null || !job.managerId.equals(manager.getId())) {
+            throw new ResourceNotFoundException("Report job not found");
+        }
+        return job;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete report job file {}: {}", path, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static class ReportJob {
+        private final String id;
+        private final Long managerId;
+        private final ReportJobRequest request;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile ReportJobResponse.Status status = ReportJobResponse.Status.QUEUED;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+        private volatile LocalDateTime expiresAt;
+        private volatile Path resultPath;
+        private volatile String contentType;
+        private volatile String filename;
+
+        ReportJob(String id, Long managerId, ReportJobRequest request) {
+            this.id = id;
+            this.managerId = managerId;
+            this.request = request;
+        }
+
+        boolean isFinished() {
+            return status == ReportJobResponse.Status.COMPLETED || status == ReportJobResponse.Status.FAILED;
+        }
+
+        void finish(ReportJobResponse.Status finalStatus, String failure, long ttlMinutes) {
+            error = failure;
+            completedAt = LocalDateTime.now();
+            expiresAt = completedAt.plusMinutes(ttlMinutes);
+            status = finalStatus;
+        }
+
+        ReportJobResponse toResponse() {
+            return ReportJobResponse.builder()
+                    .jobId(id)
+                    .type(request.getType())
+                    .status(status)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .completedAt(completedAt)
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+    }
+}
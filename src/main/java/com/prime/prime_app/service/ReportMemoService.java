@@ -0,0 +1,115 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.manager.ReportsRequest;
+import com.prime.prime_app.dto.manager.ReportsResponse;
+import com.prime.prime_app.entities.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short-lived memo of computed manager reports keyed by (manager, period, day).
+ * Concurrent requests for the same key share a single computation, so the
+ * report breakdown endpoints that the frontend calls in parallel cost one
+ * report instead of three.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportMemoService {
+    private final ManagerService managerService;
+
+    @Value("${app.reports.memo-ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final ConcurrentMap<MemoKey, MemoEntry> memo = new ConcurrentHashMap<>();
+
+    public ReportsResponse getReport(User manager, ReportsRequest.Period period) {
+        MemoKey key = new MemoKey(manager.getId(), period, LocalDate.now());
+
+        while (true) {
+            MemoEntry current = memo.get(key);
+            if (current != null && !current.isExpired()) {
+                return await(current);
+            }
+
+            MemoEntry fresh = new MemoEntry();
+            boolean owner = current == null
+                    ? memo.putIfAbsent(key, fresh) == null
+                    : memo.replace(key, current, fresh);
+            if (!owner) {
+                // Another request started the computation first; join it
+                continue;
+            }
+
+            try {
+                ReportsResponse report = managerService.generateReports(manager, period);
+                fresh.complete(report, ttlSeconds * 1000);
+                return report;
+            } catch (Throwable e) {
+                // Errors too: an entry left in flight would never expire and block the key
+                memo.remove(key, fresh);
+                fresh.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Drop every memoized report for a manager after their team changes
+     */
+    @EventListener
+    public void onTeamChanged(DashboardCacheService.TeamChangedEvent event) {
+        invalidate(event.managerId());
+    }
+
+    public void invalidate(Long managerId) {
+        memo.keySet().removeIf(key -> key.managerId().equals(managerId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.memo-cleanup-ms:60000}")
+    public void evictExpired() {
+        memo.values().removeIf(MemoEntry::isExpired);
+    }
+
+    private ReportsResponse await(MemoEntry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record MemoKey(Long managerId, ReportsRequest.Period period, LocalDate day) {
+    }
+
+    private static class MemoEntry {
+        private final CompletableFuture<ReportsResponse> future = new CompletableFuture<>();
+        // In-flight entries never expire; waiters always get the result
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        void complete(ReportsResponse report, long ttlMillis) {
+            expiresAt = System.currentTimeMillis() + ttlMillis;
+            future.complete(report);
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
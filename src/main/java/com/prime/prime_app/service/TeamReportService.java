@@ -0,0 +1,192 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.manager.ReportsResponse;
+import com.prime.prime_app.entities.AgentComment;
+import com.prime.prime_app.entities.AgentDailyStats;
+import com.prime.prime_app.entities.ManagerAssignedAgent;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.entities.WorkLog;
+import com.prime.prime_app.repository.AgentCommentRepository;
+import com.prime.prime_app.repository.AgentDailyStatsRepository;
+import com.prime.prime_app.repository.AttendanceRepository;
+import com.prime.prime_app.repository.ClientRepository;
+import com.prime.prime_app.repository.ManagerAssignedAgentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Computes team reports for a whole period in one grouped pass. Every metric is
+ * loaded for all of the manager's agents at once and laid out in an in-memory
+ * agent x day matrix, so the number of queries depends only on the number of
+ * metrics, not on team size or period length.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamReportService {
+    private final ManagerAssignedAgentRepository managerAssignmentRepository;
+    private final AgentDailyStatsRepository agentDailyStatsRepository;
+    private final ClientRepository clientRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AgentCommentRepository agentCommentRepository;
+
+    @Transactional(readOnly = true)
+    public ReportsResponse generateReport(Long managerId, LocalDate startDate, LocalDate endDate) {
+        List<ManagerAssignedAgent> assignments = managerAssignmentRepository.findByManagerIdWithAgent(managerId);
+        if (assignments.isEmpty()) {
+            return ReportsResponse.builder()
+                    .agentReports(new ArrayList<>())
+                    .build();
+        }
+
+        List<Long> agentIds = assignments.stream()
+                .map(assignment -> assignment.getAgent().getId())
+                .collect(Collectors.toList());
+        LocalDateTime rangeStart = startDate.atStartOfDay();
+        LocalDateTime rangeEnd = endDate.atTime(23, 59, 59);
+
+        ReportMatrix matrix = new ReportMatrix();
+        for (AgentDailyStats stats : agentDailyStatsRepository.findByAgentIdsAndDateRange(agentIds, startDate, endDate)) {
+            matrix.put(stats.getAgent().getId(), stats.getStatDate(), stats);
+        }
+
+        Map<Long, Integer> totalClients = new HashMap<>();
+        for (Object[] row : clientRepository.countByAgentIdsAndDateBetween(agentIds, rangeStart, rangeEnd)) {
+            totalClients.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        Map<Long, Integer> daysWorked = new HashMap<>();
+        for (Object[] row : attendanceRepository.countWorkingDaysByAgentIds(agentIds, rangeStart, rangeEnd)) {
+            daysWorked.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        Map<Long, List<String>> sectorsWorked = new HashMap<>();
+        for (Object[] row : clientRepository.findDistinctSectorsByAgentIds(agentIds, rangeStart, rangeEnd)) {
+            sectorsWorked.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        Map<Long, String> comments = new HashMap<>();
+        for (AgentComment comment : agentCommentRepository.findByAgentIdsAndCommentDate(agentIds, LocalDate.now())) {
+            comments.putIfAbsent(comment.getAgent().getId(), comment.getCommentText());
+        }
+
+        List<ReportsResponse.AgentReportDto> agentReports = new ArrayList<>();
+        for (ManagerAssignedAgent assignment : assignments) {
+            User agent = assignment.getAgent();
+            Map<LocalDate, AgentDailyStats> row = matrix.row(agent.getId());
+
+            agentReports.add(ReportsResponse.AgentReportDto.builder()
+                    .agentId(agent.getId().toString())
+                    .agentName(agent.getName())
+                    .totalClientsEngaged(totalClients.getOrDefault(agent.getId(), 0))
+                    .sectorsWorkedIn(sectorsWorked.getOrDefault(agent.getId(), new ArrayList<>()))
+                    .daysWorked(daysWorked.getOrDefault(agent.getId(), 0))
+                    .dailyComment(comments.getOrDefault(agent.getId(), ""))
+                    .dailyClientsCount(getDailyClientsCount(row, startDate, endDate))
+                    .dailySectors(getDailySectors(row, startDate, endDate))
+                    .workStatus(getWorkStatus(row, startDate, endDate))
+                    .build());
+        }
+
+        return ReportsResponse.builder()
+                .agentReports(agentReports)
+                .build();
+    }
+
+    /**
+     * Get daily client count data
+     */
+    private Map<String, Integer> getDailyClientsCount(Map<LocalDate, AgentDailyStats> dailyStats,
+                                                      LocalDate startDate, LocalDate endDate) {
+        Map<String, Integer> result = new HashMap<>();
+
+        // Fill in each day from start to end date
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            AgentDailyStats stats = dailyStats.get(date);
+            result.put(dayName(date), stats != null ? stats.getClientCount() : 0);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get daily sectors data
+     */
+    private Map<String, List<String>> getDailySectors(Map<LocalDate, AgentDailyStats> dailyStats,
+                                                      LocalDate startDate, LocalDate endDate) {
+        Map<String, List<String>> result = new HashMap<>();
+
+        // Fill in each day from start to end date
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            AgentDailyStats stats = dailyStats.get(date);
+            List<String> sectors = new ArrayList<>();
+            if (stats != null) {
+                // Sector from the work log, falling back to the day's client insurance types
+                sectors = stats.getSector() != null ? List.of(stats.getSector()) : stats.getInsuranceTypeList();
+            }
+
+            result.put(dayName(date), sectors);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get work status for each day
+     */
+    private Map<String, String> getWorkStatus(Map<LocalDate, AgentDailyStats> dailyStats,
+                                              LocalDate startDate, LocalDate endDate) {
+        Map<String, String> result = new HashMap<>();
+
+        // Fill in each day from start to end date
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            AgentDailyStats stats = dailyStats.get(date);
+            boolean worked = stats != null && stats.getWorkStatus() == WorkLog.WorkStatus.WORKED;
+            int clientCount = stats != null ? stats.getClientCount() : 0;
+
+            // Determine work status
+            String status;
+            if (!worked) {
+                status = "No work";
+            } else if (clientCount > 0) {
+                status = "Worked";
+            } else {
+                status = "Worked but no clients";
+            }
+
+            result.put(dayName(date), status);
+        }
+
+        return result;
+    }
+
+    private static String dayName(LocalDate date) {
+        return date.getDayOfWeek().toString().charAt(0) +
+                date.getDayOfWeek().toString().substring(1).toLowerCase();
+    }
+
+    /**
+     * Sparse agent x day matrix of rollup rows. Missing cells mean no activity.
+     */
+    private static class ReportMatrix {
+        private final Map<Long, Map<LocalDate, AgentDailyStats>> cells = new HashMap<>();
+
+        void put(Long agentId, LocalDate date, AgentDailyStats stats) {
+            cells.computeIfAbsent(agentId, id -> new HashMap<>()).put(date, stats);
+        }
+
+        Map<LocalDate, AgentDailyStats> row(Long agentId) {
+            return cells.getOrDefault(agentId, Map.of());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.entities.WorkLog;
+import com.prime.prime_app.repository.WorkLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps {@code work_logs.clients_served} up to date without read-modify-write.
+ * <p>
+ * In {@code direct} mode (the default) every call is a single
+ * {@code UPDATE ... SET clients_served = clients_served + ?}, so concurrent entries from
+ * one agent no longer lose updates. In {@code buffered} mode the deltas are collected in
+ * a {@link LongAdder} per work log and written in one JDBC batch every flush interval,
+ * so a busy agent's row is updated once per interval instead of once per client. The
+ * counter then lags by up to one interval, and deltas not yet flushed are lost if the
+ * process dies; the clients themselves are always stored right away.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkLogCounterService {
+    private static final String INCREMENT_SQL =
+            "UPDATE work_logs SET clients_served = clients_served + ?, updated_at = ? WHERE id = ?";
+
+    private final WorkLogRepository workLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.worklog.counters.mode:direct}")
+    private String mode;
+
+    private record CounterKey(Long workLogId, LocalDate date) {
+    }
+
+    private final Map<CounterKey, LongAdder> pending = new ConcurrentHashMap<>();
+    private TransactionTemplate tx;
+
+    @PostConstruct
+    public void init() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public void addClientsServed(WorkLog workLog, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if ("buffered".equalsIgnoreCase(mode)) {
+            CounterKey key = new CounterKey(workLog.getId(), workLog.getDate());
+            // Only count committed entries, and never flush against a work log row not yet committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+                }
+            });
+            return;
+        }
+        workLogRepository.incrementClientsServed(workLog.getId(), delta);
+    }
+
+    @Scheduled(fixedDelayString = "${app.worklog.counters.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<CounterKey, Long>> deltas = new ArrayList<>();
+        LocalDate cutoff = LocalDate.now().minusDays(1);
+        pending.forEach((key, adder) -> {
+            // Per-cell getAndSet, so an add racing with the flush lands in this flush or the next
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.add(Map.entry(key, delta));
+            } else if (key.date() != null && key.date().isBefore(cutoff)) {
+                // Nobody writes to a work log from two days ago any more
+                pending.remove(key, adder);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Same lock order on every flush
+        deltas.sort(Comparator.comparing(entry -> entry.getKey().workLogId()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            // One transaction, so a failed flush can be retried without counting twice
+            tx.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INCREMENT_SQL, deltas, deltas.size(), (ps, entry) -> {
+                        ps.setLong(1, entry.getValue());
+                        ps.setTimestamp(2, now);
+                        ps.setLong(3, entry.getKey().workLogId());
+                    }));
+            log.debug("Flushed clients_served deltas for {} work logs", deltas.size());
+        } catch (RuntimeException e) {
+            log.error("Could not flush clients_served deltas, keeping them for the next flush: {}", e.getMessage(), e);
+            deltas.forEach(entry -> pending.computeIfAbsent(entry.getKey(), key -> new LongAdder())
+                    .add(entry.getValue()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,17 @@
+-- Per-agent, per-day activity rollup maintained alongside client, work log and attendance writes
+CREATE TABLE agent_daily_stats (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    agent_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    client_count INT NOT NULL DEFAULT 0,
+    insurance_types VARCHAR(255),
+    sector VARCHAR(255),
+    checked_in BIT NOT NULL DEFAULT 0,
+    work_status VARCHAR(20),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE KEY uk_agent_stat_date (agent_id, stat_date),
+    KEY idx_stat_date (stat_date),
+    FOREIGN KEY fk_agent_daily_stats_agent (agent_id) REFERENCES users(id),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
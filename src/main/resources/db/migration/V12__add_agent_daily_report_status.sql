@@ -0,0 +1,4 @@
+-- Daily report PDFs are rendered in the background; track where each one is
+ALTER TABLE agent_daily_reports ADD COLUMN status VARCHAR(20);
+UPDATE agent_daily_reports SET status = 'READY' WHERE status IS NULL;
+CREATE INDEX idx_report_status ON agent_daily_reports (status);
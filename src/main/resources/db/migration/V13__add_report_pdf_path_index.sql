@@ -0,0 +1,2 @@
+-- Report downloads authorize by looking the report up from its stored path
+CREATE INDEX idx_report_pdf_path ON agent_daily_reports (pdf_path);
@@ -0,0 +1,8 @@
+-- Progress of the one-off agent_daily_stats history backfill
+CREATE TABLE stats_backfill_marker (
+    name VARCHAR(64) NOT NULL,
+    covered_from DATE NOT NULL,
+    completed BIT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
@@ -0,0 +1,103 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.agent.ClientEntryBatchResponse;
+import com.prime.prime_app.entities.Client;
+import com.prime.prime_app.entities.User;
+import com.prime.prime_app.entities.WorkLog;
+import com.prime.prime_app.repository.ClientRepository;
+import com.prime.prime_app.repository.UserRepository;
+import com.prime.prime_app.repository.WorkLogRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.prime.prime_app.service.ClientEntryFixtures.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AgentServiceReplayTest {
+    private static final ValidatorFactory VALIDATOR_FACTORY = Validation.buildDefaultValidatorFactory();
+    private static final LocalDate WORK_DATE = LocalDate.of(2024, 5, 6);
+    private static final String STORED_ID = "1199880000000001";
+    private static final String NEW_ID = "1199880000000002";
+
+    private UserRepository userRepository;
+    private WorkLogRepository workLogRepository;
+    private ClientBatchService clientBatchService;
+    private WorkLogCounterService workLogCounterService;
+    private AgentService agentService;
+    private final User agent = User.builder().id(7L).build();
+    private final WorkLog workLog = WorkLog.builder().id(11L).date(WORK_DATE).build();
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        workLogRepository = mock(WorkLogRepository.class);
+        clientBatchService = mock(ClientBatchService.class);
+        workLogCounterService = mock(WorkLogCounterService.class);
+        Validator validator = VALIDATOR_FACTORY.getValidator();
+        agentService = new AgentService(userRepository, workLogRepository, mock(ClientRepository.class),
+                mock(AuthService.class), mock(AgentDailyStatsService.class), mock(DashboardCacheService.class),
+                clientBatchService, workLogCounterService, mock(AgentAssignmentCacheService.class), validator);
+
+        when(userRepository.findById(7L)).thenReturn(Optional.of(agent));
+        when(workLogRepository.findByAgentAndDate(agent, WORK_DATE)).thenReturn(Optional.of(workLog));
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        VALIDATOR_FACTORY.close();
+    }
+
+    @Test
+    void replaySkipsEntriesStoredBeforeTheCheckpoint() {
+        // The first entry made it to the database before the drainer could record its checkpoint
+        when(clientBatchService.findTaken(anyCollection()))
+                .thenReturn(new ClientBatchService.TakenValues(Set.of(STORED_ID), Set.of(), Set.of()));
+
+        ClientEntryBatchResponse response = agentService.replayClientInteractions(7L, WORK_DATE,
+                List.of(entry(STORED_ID), entry(NEW_ID)),
+                List.of(WORK_DATE.atTime(9, 0), WORK_DATE.atTime(9, 5)));
+
+        assertThat(response.getSaved()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(ClientEntryBatchResponse.EntryResult::getStatus)
+                .containsExactly(ClientEntryBatchResponse.Status.REJECTED, ClientEntryBatchResponse.Status.SAVED);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Client>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(clientBatchService).insertBatch(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Client::getNationalId).containsExactly(NEW_ID);
+        assertThat(inserted.getValue().get(0).getTimeOfInteraction()).isEqualTo(WORK_DATE.atTime(9, 5));
+        verify(workLogCounterService).addClientsServed(workLog, 1);
+    }
+
+    @Test
+    void replayOfAFullyStoredBatchWritesNothing() {
+        when(clientBatchService.findTaken(anyCollection()))
+                .thenReturn(new ClientBatchService.TakenValues(Set.of(STORED_ID, NEW_ID), Set.of(), Set.of()));
+
+        ClientEntryBatchResponse response = agentService.replayClientInteractions(7L, WORK_DATE,
+                List.of(entry(STORED_ID), entry(NEW_ID)),
+                List.of(WORK_DATE.atTime(12, 0), WORK_DATE.atTime(12, 5)));
+
+        assertThat(response.getSaved()).isZero();
+        assertThat(response.getRejected()).isEqualTo(2);
+        verify(clientBatchService, never()).insertBatch(any());
+        verify(workLogCounterService, never()).addClientsServed(any(), anyInt());
+    }
+}
@@ -0,0 +1,20 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.dto.agent.ClientEntryRequest;
+
+final class ClientEntryFixtures {
+
+    private ClientEntryFixtures() {
+    }
+
+    // A valid entry whose name is derived from the last digits of the national ID
+    static ClientEntryRequest entry(String nationalId) {
+        return ClientEntryRequest.builder()
+                .name("Client " + nationalId.substring(nationalId.length() - 4))
+                .nationalId(nationalId)
+                .phone("0788000000")
+                .insuranceType("LIFE")
+                .locationOfClient("Kigali")
+                .build();
+    }
+}
@@ -0,0 +1,271 @@
+package com.prime.prime_app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prime.prime_app.dto.agent.ClientEntryBatchResponse;
+import com.prime.prime_app.dto.agent.ClientEntryRequest;
+import com.prime.prime_app.entities.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.prime.prime_app.service.ClientEntryFixtures.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClientIngestServiceTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> replayedIds = Collections.synchronizedList(new ArrayList<>());
+    private final List<ClientIngestService> started = new ArrayList<>();
+    private AgentService agentService;
+    private User agent;
+
+    @BeforeEach
+    void setUp() {
+        agentService = mock(AgentService.class);
+        agent = User.builder().id(7L).build();
+        when(agentService.isAgentAssignedToManager(any())).thenReturn(true);
+        when(agentService.replayClientInteractions(anyLong(), any(LocalDate.class), anyList(), anyList()))
+                .thenAnswer(invocation -> saved(invocation.getArgument(2)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(ClientIngestService::shutdown);
+    }
+
+    @Test
+    void concurrentEntriesAreAcknowledgedAndDrainedOnce() throws Exception {
+        ClientIngestService service = start("journal");
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                String nationalId = nationalId(i);
+                calls.add(callers.submit(() -> service.logClientInteraction(agent, entry(nationalId))));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+        assertThat(journalLines()).hasSize(50);
+
+        service.drain();
+        service.drain();
+
+        assertThat(replayedIds).hasSize(50)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 50).mapToObj(this::nationalId).toList());
+    }
+
+    @Test
+    void tornTailIsDroppedOnStartup() throws Exception {
+        ClientIngestService writer = start("journal");
+        writer.logClientInteraction(agent, entry(nationalId(1)));
+        writer.logClientInteraction(agent, entry(nationalId(2)));
+        stop(writer);
+
+        Path segment = onlySegment();
+        long complete = Files.size(segment);
+        // A crash in the middle of the next append
+        Files.writeString(segment, "{\"agentId\":7,\"timeOfInt", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        ClientIngestService recovered = start("sync");
+        assertThat(Files.size(segment)).isEqualTo(complete);
+
+        recovered.drain();
+        assertThat(replayedIds).containsExactly(nationalId(1), nationalId(2));
+        assertThat(journalDir.resolve("dead-letter.jsonl")).doesNotExist();
+    }
+
+    @Test
+    void drainingResumesFromTheCheckpoint() throws Exception {
+        ClientIngestService writer = start("journal");
+        for (int i = 1; i <= 3; i++) {
+            writer.logClientInteraction(agent, entry(nationalId(i)));
+        }
+        stop(writer);
+
+        // As if the process died right after storing the first entry
+        Path segment = onlySegment();
+        int firstLineLength = journalLines().get(0).getBytes(StandardCharsets.UTF_8).length + 1;
+        Files.writeString(journalDir.resolve("checkpoint"), segment.getFileName() + " " + firstLineLength);
+
+        ClientIngestService recovered = start("sync");
+        recovered.drain();
+
+        assertThat(replayedIds).containsExactly(nationalId(2), nationalId(3));
+        assertThat(Files.readString(journalDir.resolve("checkpoint")))
+                .isEqualTo(segment.getFileName() + " " + Files.size(segment));
+    }
+
+    @Test
+    void conflictingBatchIsRetriedOneEntryAtATime() throws Exception {
+        String conflicting = nationalId(2);
+        when(agentService.replayClientInteractions(anyLong(), any(LocalDate.class), anyList(), anyList()))
+                .thenAnswer(invocation -> {
+                    List<ClientEntryRequest> entries = invocation.getArgument(2);
+                    if (entries.stream().anyMatch(entry -> entry.getNationalId().equals(conflicting))) {
+                        throw new DataIntegrityViolationException("Duplicate entry for uk_clients_national_id");
+                    }
+                    return saved(entries);
+                });
+
+        ClientIngestService service = start("journal");
+        for (int i = 1; i <= 3; i++) {
+            service.logClientInteraction(agent, entry(nationalId(i)));
+        }
+        service.drain();
+
+        assertThat(replayedIds).containsExactly(nationalId(1), nationalId(3));
+        List<String> deadLetters = Files.readAllLines(journalDir.resolve("dead-letter.jsonl"));
+        assertThat(deadLetters).hasSize(2);
+        assertThat(deadLetters.get(0)).startsWith("# ").contains("conflict");
+        assertThat(deadLetters.get(1)).contains(conflicting);
+        assertThat(meterRegistry.counter("ingest.journal.dead_lettered", "reason", "conflict").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void alreadyStoredEntriesAreSkippedWithoutDeadLettering() throws Exception {
+        String stored = nationalId(1);
+        String invalid = nationalId(2);
+        when(agentService.replayClientInteractions(anyLong(), any(LocalDate.class), anyList(), anyList()))
+                .thenAnswer(invocation -> {
+                    List<ClientEntryRequest> entries = invocation.getArgument(2);
+                    List<ClientEntryBatchResponse.EntryResult> results = new ArrayList<>();
+                    for (int i = 0; i < entries.size(); i++) {
+                        String nationalId = entries.get(i).getNationalId();
+                        String message = nationalId.equals(stored) ? AgentService.NATIONAL_ID_ALREADY_RECORDED
+                                : nationalId.equals(invalid) ? "Date of birth must be in the format yyyy-MM-dd"
+                                : null;
+                        if (message == null) {
+                            replayedIds.add(nationalId);
+                        }
+                        results.add(ClientEntryBatchResponse.EntryResult.builder()
+                                .index(i)
+                                .nationalId(nationalId)
+                                .status(message == null ? ClientEntryBatchResponse.Status.SAVED
+                                        : ClientEntryBatchResponse.Status.REJECTED)
+                                .message(message)
+                                .build());
+                    }
+                    return ClientEntryBatchResponse.builder().results(results).build();
+                });
+
+        ClientIngestService service = start("journal");
+        for (int i = 1; i <= 3; i++) {
+            service.logClientInteraction(agent, entry(nationalId(i)));
+        }
+        service.drain();
+
+        assertThat(replayedIds).containsExactly(nationalId(3));
+        List<String> deadLetters = Files.readAllLines(journalDir.resolve("dead-letter.jsonl"));
+        assertThat(deadLetters).hasSize(2);
+        assertThat(deadLetters.get(1)).contains(invalid);
+        assertThat(meterRegistry.counter("ingest.journal.already_stored").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("ingest.journal.dead_lettered", "reason", "rejected").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void unavailableDatabaseLeavesEntriesForTheNextRun() throws Exception {
+        when(agentService.replayClientInteractions(anyLong(), any(LocalDate.class), anyList(), anyList()))
+                .thenThrow(new TransientDataAccessResourceException("Connection refused"))
+                .thenAnswer(invocation -> saved(invocation.getArgument(2)));
+
+        ClientIngestService service = start("journal");
+        service.logClientInteraction(agent, entry(nationalId(1)));
+
+        service.drain();
+        assertThat(replayedIds).isEmpty();
+        assertThat(journalDir.resolve("checkpoint")).doesNotExist();
+
+        service.drain();
+        assertThat(replayedIds).containsExactly(nationalId(1));
+    }
+
+    private ClientIngestService start(String mode) {
+        ClientIngestService service = new ClientIngestService(agentService, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(service, "mode", mode);
+        ReflectionTestUtils.setField(service, "journalDirectory", journalDir.toString());
+        ReflectionTestUtils.setField(service, "queueCapacity", 100);
+        ReflectionTestUtils.setField(service, "groupMaxEntries", 1000);
+        ReflectionTestUtils.setField(service, "segmentMaxBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(service, "drainBatchSize", 500);
+        ReflectionTestUtils.setField(service, "drainMaxBatchesPerRun", 20);
+        ReflectionTestUtils.setField(service, "drainMaxRunMs", 10_000L);
+        ReflectionTestUtils.setField(service, "appendTimeoutMs", 5_000L);
+        service.init();
+        started.add(service);
+        return service;
+    }
+
+    private void stop(ClientIngestService service) {
+        service.shutdown();
+        started.remove(service);
+    }
+
+    private ClientEntryBatchResponse saved(List<ClientEntryRequest> entries) {
+        List<ClientEntryBatchResponse.EntryResult> results = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            replayedIds.add(entries.get(i).getNationalId());
+            results.add(ClientEntryBatchResponse.EntryResult.builder()
+                    .index(i)
+                    .nationalId(entries.get(i).getNationalId())
+                    .status(ClientEntryBatchResponse.Status.SAVED)
+                    .build());
+        }
+        return ClientEntryBatchResponse.builder()
+                .saved(entries.size())
+                .timeOfInteraction(LocalDateTime.now().toString())
+                .results(results)
+                .build();
+    }
+
+    private Path onlySegment() throws Exception {
+        try (var files = Files.list(journalDir)) {
+            List<Path> segments = files.filter(file -> file.getFileName().toString().startsWith("segment-")).toList();
+            assertThat(segments).hasSize(1);
+            return segments.get(0);
+        }
+    }
+
+    private List<String> journalLines() throws Exception {
+        return Files.readAllLines(onlySegment());
+    }
+
+    private String nationalId(int i) {
+        return String.format("%016d", 1199880000000000L + i);
+    }
+}
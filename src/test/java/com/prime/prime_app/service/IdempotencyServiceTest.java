@@ -0,0 +1,129 @@
+package com.prime.prime_app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.prime.prime_app.service.ClientEntryFixtures.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class IdempotencyServiceTest {
+    private static final String SCOPE = "client-entry";
+
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        idempotencyService = new IdempotencyService(mock(ObjectProvider.class), new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "maxEntries", 100);
+        ReflectionTestUtils.setField(idempotencyService, "ttlMinutes", 60L);
+        idempotencyService.init();
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("agent@example.com", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryWithTheSameKeyReplaysTheFirstResponse() {
+        ResponseEntity<String> first = idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), this::created);
+        ResponseEntity<String> retry = idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), this::created);
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void keyReusedForADifferentBodyIsRejected() {
+        idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), this::created);
+
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", entry("1199880000000002"), this::created))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failedAttemptFreesTheKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ResponseEntity<String> retry = idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), this::created);
+
+        assertThat(runs).hasValue(2);
+        assertThat(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void retryWhileTheFirstAttemptRunsGetsConflict() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService first = Executors.newSingleThreadExecutor();
+        try {
+            var authentication = SecurityContextHolder.getContext().getAuthentication();
+            Future<ResponseEntity<String>> inFlight = first.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                return idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), () -> {
+                    running.countDown();
+                    awaitQuietly(release);
+                    return created();
+                });
+            });
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), this::created))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+            release.countDown();
+            assertThat(inFlight.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        } finally {
+            first.shutdownNow();
+        }
+    }
+
+    @Test
+    void keysAreScopedToTheEndpoint() {
+        idempotencyService.execute(SCOPE, "key-1", entry("1199880000000001"), this::created);
+        idempotencyService.execute("attendance", "key-1", entry("1199880000000001"), this::created);
+
+        assertThat(runs).hasValue(2);
+    }
+
+    private ResponseEntity<String> created() {
+        return ResponseEntity.status(HttpStatus.CREATED).body("saved-" + runs.incrementAndGet());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.prime.prime_app.service;
+
+import com.prime.prime_app.entities.WorkLog;
+import com.prime.prime_app.repository.WorkLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class WorkLogCounterServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private WorkLogRepository workLogRepository;
+    private JdbcTemplate jdbcTemplate;
+    private WorkLogCounterService counterService;
+    // Work log id -> delta, for every batch that was written
+    private final List<Map<Long, Long>> flushed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        workLogRepository = mock(WorkLogRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        counterService = new WorkLogCounterService(workLogRepository, jdbcTemplate, mock(PlatformTransactionManager.class));
+        counterService.init();
+        doAnswer(this::recordBatch).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void directModeIncrementsInTheDatabase() {
+        ReflectionTestUtils.setField(counterService, "mode", "direct");
+
+        counterService.addClientsServed(workLog(11L), 3);
+
+        verify(workLogRepository).incrementClientsServed(11L, 3);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void bufferedDeltasAreSummedIntoOneBatch() {
+        ReflectionTestUtils.setField(counterService, "mode", "buffered");
+
+        committed(() -> counterService.addClientsServed(workLog(11L), 2));
+        committed(() -> counterService.addClientsServed(workLog(11L), 3));
+        committed(() -> counterService.addClientsServed(workLog(12L), 1));
+        counterService.flush();
+
+        assertThat(flushed).containsExactly(Map.of(11L, 5L, 12L, 1L));
+        verify(workLogRepository, never()).incrementClientsServed(any(), anyInt());
+
+        // Nothing new, nothing written
+        counterService.flush();
+        assertThat(flushed).hasSize(1);
+    }
+
+    @Test
+    void rolledBackEntriesAreNotCounted() {
+        ReflectionTestUtils.setField(counterService, "mode", "buffered");
+
+        TransactionSynchronizationManager.initSynchronization();
+        counterService.addClientsServed(workLog(11L), 4);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        counterService.flush();
+
+        assertThat(flushed).isEmpty();
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForTheNextOne() {
+        ReflectionTestUtils.setField(counterService, "mode", "buffered");
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .doAnswer(this::recordBatch)
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        committed(() -> counterService.addClientsServed(workLog(11L), 2));
+        counterService.flush();
+        assertThat(flushed).isEmpty();
+
+        committed(() -> counterService.addClientsServed(workLog(11L), 1));
+        counterService.flush();
+
+        assertThat(flushed).containsExactly(Map.of(11L, 3L));
+    }
+
+    // Runs the statement setter for each row and keeps the (work log id, delta) pairs it binds
+    private int[][] recordBatch(InvocationOnMock invocation) throws SQLException {
+        Collection<Object> rows = invocation.getArgument(1);
+        ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+        Map<Long, Long> batch = new HashMap<>();
+        for (Object row : rows) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            setter.setValues(ps, row);
+            ArgumentCaptor<Long> delta = ArgumentCaptor.forClass(Long.class);
+            ArgumentCaptor<Long> workLogId = ArgumentCaptor.forClass(Long.class);
+            verify(ps).setLong(eq(1), delta.capture());
+            verify(ps).setLong(eq(3), workLogId.capture());
+            batch.put(workLogId.getValue(), delta.getValue());
+        }
+        flushed.add(batch);
+        return new int[][]{};
+    }
+
+    private static void committed(Runnable write) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static WorkLog workLog(Long id) {
+        return WorkLog.builder().id(id).date(TODAY).build();
+    }
+}